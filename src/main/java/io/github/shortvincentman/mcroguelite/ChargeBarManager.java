@@ -1,131 +1,84 @@
 package io.github.shortvincentman.mcroguelite;
 
+import io.github.shortvincentman.mcroguelite.config.PluginSettings;
+import io.github.shortvincentman.mcroguelite.mana.ManaEngine;
+import io.github.shortvincentman.mcroguelite.mana.ManaFullChargeEvent;
+import io.github.shortvincentman.mcroguelite.profile.PlayerProfile;
+import io.github.shortvincentman.mcroguelite.profile.ProfileCache;
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickContext;
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickPipeline;
+import io.github.shortvincentman.mcroguelite.scheduler.TaskScheduler;
+import io.github.shortvincentman.mcroguelite.scheduler.TickClock;
+import io.github.shortvincentman.mcroguelite.util.BossBarView;
 import org.bukkit.Bukkit;
 import org.bukkit.Sound;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
-import org.bukkit.plugin.Plugin;
 
-import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ChargeBarManager implements Listener {
 
-    private final Plugin plugin;
+    private final Mcroguelite plugin;
+    private final TickClock clock;
 
     // Training thresholds (full mana charges required)
     public static final int MANA_RUN_THRESHOLD = 25;
     public static final int MANA_CLIMB_THRESHOLD = 90;
     public static final int MANA_DASH_THRESHOLD = 150;
     
-    // Scaling constants based on full charge count
-    private static final int MAX_SCALING_CHARGES = 200; // Caps scaling benefits at 200 charges
+    // Caps cooldown scaling at 200 charges
+    private static final int MAX_SCALING_CHARGES = 200;
     
     // Base cooldown after full charge (ms) - scales down with mana level
     private static final long BASE_COOLDOWN_MS = 1500L;
     private static final long MIN_COOLDOWN_MS = 300L;
+    
+    // Minimum ticks between charging chimes (0.2s)
+    private static final long CHARGE_SOUND_INTERVAL_TICKS = 4L;
+
+    // Bars advance every 2 ticks (~0.1s)
+    private static final int TICK_INTERVAL = 2;
 
+    // Cold per-player data. Mana progress, cooldowns, disruption and charge flags
+    // live in the ManaEngine under [slot]; the boss bar is only a view of it.
+    // Saved progression (full charges, unlocks) lives in the player's profile.
     static class PlayerChargeState {
-        BossBar bar;
-        boolean charging;
-        boolean manaUnlocked;
-        boolean hasReceivedManaMessage;
-        long lastChargeSound;
-        
-        // Training system
-        int fullChargeCount = 0;
-        boolean manaRunUnlocked = false;
-        boolean manaClimbUnlocked = false;
-        boolean manaDashUnlocked = false;
-        
-        // Mana disruption (from mana punch)
-        long manaDisruptedUntil = 0;
-        
-        // Cooldown after full charge (prevents immediate re-charging)
-        long chargeCooldownUntil = 0;
-        boolean reachedFullCharge = false;
+        final Player player;
+        final int slot;
+        final PlayerProfile profile;
+        BossBarView bar;
+
+        PlayerChargeState(Player player, int slot, PlayerProfile profile) {
+            this.player = player;
+            this.slot = slot;
+            this.profile = profile;
+        }
     }
 
-    private final Map<UUID, PlayerChargeState> states = new HashMap<>();
-    private final File playerDataFolder;
+    private final Map<UUID, PlayerChargeState> states = new ConcurrentHashMap<>();
+    // Sized for a full server; players beyond that just add pages to the engine
+    private final ManaEngine engine = new ManaEngine(Bukkit.getMaxPlayers());
+    // Slot -> state, so the tick can walk the engine's active set; guarded by itself
+    private final Object slotLock = new Object();
+    private PlayerChargeState[] slotStates = new PlayerChargeState[64];
+    private final ProfileCache profiles;
+    private TaskScheduler.Task task;
 
-    public ChargeBarManager(Plugin plugin) {
+    public ChargeBarManager(Mcroguelite plugin, TickClock clock, ProfileCache profiles) {
         this.plugin = plugin;
-        this.playerDataFolder = new File(plugin.getDataFolder(), "playerdata");
-        if (!playerDataFolder.exists()) {
-            playerDataFolder.mkdirs();
-        }
-    }
-    
-    // -------- Data Persistence --------
-    
-    private File getPlayerFile(UUID playerId) {
-        return new File(playerDataFolder, playerId.toString() + ".yml");
-    }
-    
-    /**
-     * Save a player's mana data to disk.
-     */
-    public void savePlayerData(UUID playerId) {
-        PlayerChargeState state = states.get(playerId);
-        if (state == null) return;
-        
-        File file = getPlayerFile(playerId);
-        YamlConfiguration config = new YamlConfiguration();
-        
-        config.set("manaUnlocked", state.manaUnlocked);
-        config.set("hasReceivedManaMessage", state.hasReceivedManaMessage);
-        config.set("fullChargeCount", state.fullChargeCount);
-        config.set("manaRunUnlocked", state.manaRunUnlocked);
-        config.set("manaClimbUnlocked", state.manaClimbUnlocked);
-        config.set("manaDashUnlocked", state.manaDashUnlocked);
-        
-        try {
-            config.save(file);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Failed to save player data for " + playerId + ": " + e.getMessage());
-        }
-    }
-    
-    /**
-     * Load a player's mana data from disk into their state.
-     */
-    private void loadPlayerData(UUID playerId, PlayerChargeState state) {
-        File file = getPlayerFile(playerId);
-        if (!file.exists()) return;
-        
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
-        
-        state.manaUnlocked = config.getBoolean("manaUnlocked", false);
-        state.hasReceivedManaMessage = config.getBoolean("hasReceivedManaMessage", false);
-        state.fullChargeCount = config.getInt("fullChargeCount", 0);
-        state.manaRunUnlocked = config.getBoolean("manaRunUnlocked", false);
-        state.manaClimbUnlocked = config.getBoolean("manaClimbUnlocked", false);
-        state.manaDashUnlocked = config.getBoolean("manaDashUnlocked", false);
-        
-        plugin.getLogger().info("Loaded mana data for player " + playerId + " (charges: " + state.fullChargeCount + ")");
-    }
-    
-    /**
-     * Save all online players' data (call on plugin disable).
-     */
-    public void saveAllPlayerData() {
-        for (UUID playerId : states.keySet()) {
-            savePlayerData(playerId);
-        }
-        plugin.getLogger().info("Saved mana data for " + states.size() + " players.");
+        this.clock = clock;
+        this.profiles = profiles;
     }
 
     @EventHandler
@@ -133,13 +86,15 @@ public class ChargeBarManager implements Listener {
         Player player = event.getPlayer();
         UUID id = player.getUniqueId();
         PlayerChargeState state = states.computeIfAbsent(id, k -> createState(player));
+        int slot = state.slot;
 
-        if (!state.manaUnlocked) {
+        if (!engine.isUnlocked(slot)) {
             return;
         }
         
         // Check if mana is disrupted
-        if (System.currentTimeMillis() < state.manaDisruptedUntil) {
+        long now = clock.now();
+        if (now < engine.getDisruptedUntil(slot)) {
             if (event.isSneaking()) {
                 player.sendActionBar(net.kyori.adventure.text.Component.text("§c✖ Mana Disrupted! ✖"));
             }
@@ -147,10 +102,9 @@ public class ChargeBarManager implements Listener {
         }
         
         // Check if on charge cooldown (just hit full charge)
-        long now = System.currentTimeMillis();
-        if (now < state.chargeCooldownUntil) {
+        if (now < engine.getCooldownUntil(slot)) {
             // Can't charge during cooldown, but bar stays visible and drains
-            state.charging = false;
+            engine.setFlag(slot, ManaEngine.FLAG_CHARGING, false);
             if (state.bar != null) {
                 state.bar.setVisible(true);
             }
@@ -158,13 +112,14 @@ public class ChargeBarManager implements Listener {
         }
         
         // Reset the full charge flag when starting a new charge cycle
-        if (event.isSneaking() && state.bar != null && state.bar.getProgress() < 0.5) {
-            state.reachedFullCharge = false;
+        if (event.isSneaking() && engine.getProgress(slot) < 0.5) {
+            engine.setFlag(slot, ManaEngine.FLAG_REACHED_FULL, false);
         }
 
-        state.charging = event.isSneaking();
+        engine.setFlag(slot, ManaEngine.FLAG_CHARGING, event.isSneaking());
 
         if (event.isSneaking()) {
+            engine.activate(slot);
             if (state.bar != null) {
                 state.bar.setVisible(true);
             }
@@ -173,26 +128,30 @@ public class ChargeBarManager implements Listener {
 
     @EventHandler
     public void onJoin(PlayerJoinEvent event) {
-        // Pre-load player data when they join
+        // The profile is already online (ProfileCache joins at LOWEST); just set up the bar
         Player player = event.getPlayer();
-        UUID id = player.getUniqueId();
-        PlayerChargeState state = states.computeIfAbsent(id, k -> createState(player));
-        loadPlayerData(id, state);
+        states.computeIfAbsent(player.getUniqueId(), k -> createState(player));
     }
 
     @EventHandler
     public void onQuit(PlayerQuitEvent event) {
         UUID id = event.getPlayer().getUniqueId();
-        // Save player data before removing their state
-        savePlayerData(id);
         PlayerChargeState state = states.remove(id);
-        if (state != null && state.bar != null) {
-            state.bar.removeAll();
+        if (state != null) {
+            releaseState(state);
         }
     }
 
     private PlayerChargeState createState(Player player) {
-        PlayerChargeState state = new PlayerChargeState();
+        int slot = engine.allocate();
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        PlayerChargeState state = new PlayerChargeState(player, slot, profile);
+        synchronized (slotLock) {
+            if (slot >= slotStates.length) {
+                slotStates = Arrays.copyOf(slotStates, Math.max(slot + 1, slotStates.length * 2));
+            }
+            slotStates[slot] = state;
+        }
 
         BossBar bar = Bukkit.createBossBar(
                 "Mana",
@@ -203,114 +162,159 @@ public class ChargeBarManager implements Listener {
         bar.setVisible(false);
         bar.setProgress(0.0);
 
-        state.bar = bar;
-        state.charging = false;
-        state.manaUnlocked = plugin.getConfig().getBoolean("mana.auto-unlock", false);
-        state.hasReceivedManaMessage = false;
-        state.lastChargeSound = 0L;
+        PluginSettings settings = plugin.getSettings();
+        state.bar = new BossBarView(bar, settings.manaBarThreshold());
+        engine.setFlag(slot, ManaEngine.FLAG_UNLOCKED, profile.isManaUnlocked());
+        engine.setScaling(slot, profile.getFullChargeCount());
 
         return state;
     }
 
-    public void tickAllBars(double baseChargeRate, double baseDrainRate) {
-        Iterator<Map.Entry<UUID, PlayerChargeState>> it = states.entrySet().iterator();
+    private void releaseState(PlayerChargeState state) {
+        if (state.bar != null) {
+            state.bar.removeAll();
+        }
+        synchronized (slotLock) {
+            slotStates[state.slot] = null;
+        }
+        engine.release(state.slot);
+    }
 
-        while (it.hasNext()) {
-            Map.Entry<UUID, PlayerChargeState> entry = it.next();
-            UUID id = entry.getKey();
-            PlayerChargeState state = entry.getValue();
+    private PlayerChargeState stateAt(int slot) {
+        synchronized (slotLock) {
+            return slot < slotStates.length ? slotStates[slot] : null;
+        }
+    }
 
-            Player player = Bukkit.getPlayer(id);
-            if (player == null || !player.isOnline()) {
-                if (state.bar != null) {
-                    state.bar.removeAll();
-                }
-                it.remove();
-                continue;
-            }
+    /**
+     * Push the engine's current value for this player onto their boss bar.
+     * Bars are shown when the player starts sneaking and hidden here once drained.
+     */
+    private void renderBar(PlayerChargeState state) {
+        BossBarView bar = state.bar;
+        if (bar == null) return;
+
+        int slot = state.slot;
+        if (!engine.isUnlocked(slot)) {
+            bar.setProgress(0.0);
+            bar.setVisible(false);
+            return;
+        }
 
-            BossBar bar = state.bar;
-            if (bar == null) continue;
+        double progress = engine.getProgress(slot);
+        bar.setProgress(progress);
 
-            if (!state.manaUnlocked) {
-                bar.setProgress(0.0);
-                bar.setVisible(false);
+        // stays visible until drained
+        if (progress <= 0.0 && !engine.isCharging(slot)) {
+            bar.setVisible(false);
+        }
+    }
+
+    // -------- Tick --------
+
+    /**
+     * Start advancing bars every 2 ticks. On Paper one task walks the
+     * engine's active set, so idle players cost nothing. On Folia each player
+     * must be ticked on their own region, so it runs as a pipeline stage instead.
+     */
+    public void start(TaskScheduler scheduler, PlayerTickPipeline pipeline) {
+        if (scheduler.isRegionized()) {
+            pipeline.register("mana-bars", TICK_INTERVAL, this::tickPlayer);
+        } else if (task == null) {
+            task = scheduler.runTimer(this::tickActive, TICK_INTERVAL, TICK_INTERVAL);
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void tickActive() {
+        long now = clock.now();
+        long start = System.nanoTime();
+        // Walk the active set from the end so deactivating a slot never skips one
+        for (int i = engine.getActiveCount() - 1; i >= 0; i--) {
+            int slot = engine.getActiveSlot(i);
+            PlayerChargeState state = stateAt(slot);
+            if (state == null) {
+                engine.deactivate(slot);
                 continue;
             }
-            
-            // Get full charge count for scaling (capped at MAX_SCALING_CHARGES)
-            int charges = Math.min(state.fullChargeCount, MAX_SCALING_CHARGES);
-            
-            // Scale charge rate: +0.5% per charge (200 charges = 100% faster charging)
-            double chargeMultiplier = 1.0 + (charges * 0.005);
-            double chargeRate = baseChargeRate * chargeMultiplier;
-            
-            // Scale drain rate: -0.3% per charge (200 charges = 60% slower drain, capped at 70% reduction)
-            double drainMultiplier = Math.max(0.3, 1.0 - (charges * 0.003));
-            double drainRate = baseDrainRate * drainMultiplier;
-
-            double oldProgress = bar.getProgress();
-            double progress = oldProgress;
-
-            long now = System.currentTimeMillis();
-            boolean onCooldown = now < state.chargeCooldownUntil;
-            boolean chargingNow = state.charging && player.isSneaking() && !onCooldown;
-
-            if (chargingNow && !state.reachedFullCharge) {
-                progress += chargeRate;
-            } else {
-                // Always drain when not actively charging (including during cooldown)
-                progress -= drainRate;
-            }
+            tickState(state, state.player.isSneaking(), now);
+        }
+        plugin.getTickBudget().charge(System.nanoTime() - start);
+    }
 
-            if (progress < 0.0) progress = 0.0;
-            if (progress > 1.0) progress = 1.0;
-
-            // Charging sound (soft chime) while bar is actually increasing
-            if (chargingNow && progress > oldProgress && !state.reachedFullCharge) {
-                now = System.currentTimeMillis();
-                if (now - state.lastChargeSound >= 200L) { // every 0.2s for smoother sound
-                    // Pitch increases as charge fills
-                    float pitch = 0.8f + (float)(progress * 1.2f);
-                    player.playSound(
-                            player.getLocation(),
-                            Sound.BLOCK_NOTE_BLOCK_CHIME,
-                            0.4f,
-                            pitch
-                    );
-                    state.lastChargeSound = now;
-                }
-            }
+    /**
+     * Folia player tick stage: advance this player's bar if it is active.
+     * Idle players (not sneaking, bar settled) cost one map lookup.
+     */
+    private void tickPlayer(PlayerTickContext ctx) {
+        PlayerChargeState state = states.get(ctx.playerId());
+        if (state == null || !engine.isActive(state.slot)) return;
+        tickState(state, ctx.isSneaking(), ctx.now());
+        ctx.invalidateMana();
+    }
+
+    /** Advance one active bar by a single charge tick. */
+    private void tickState(PlayerChargeState state, boolean sneaking, long now) {
+        int slot = state.slot;
+        Player player = state.player;
+        if (!engine.isUnlocked(slot)) {
+            engine.deactivate(slot);
+            renderBar(state);
+            return;
+        }
+
+        // Rates come from the live settings snapshot; deadlines are in server ticks
+        PluginSettings settings = plugin.getSettings();
+        int result = engine.advance(slot, sneaking, settings.chargeRate(), settings.drainRate(), now);
+        double progress = engine.getProgress(slot);
+
+        // Charging sound (soft chime) while bar is actually increasing
+        if ((result & ManaEngine.RESULT_ROSE) != 0 && now - engine.getLastChargeSound(slot) >= CHARGE_SOUND_INTERVAL_TICKS) {
+            // every 0.2s for smoother sound, pitch increases as charge fills
+            float pitch = 0.8f + (float)(progress * 1.2f);
+            player.playSound(
+                    player.getLocation(),
+                    Sound.BLOCK_NOTE_BLOCK_CHIME,
+                    0.4f,
+                    pitch
+            );
+            engine.setLastChargeSound(slot, now);
+        }
+        
+        // Sound when charge is full
+        if ((result & ManaEngine.RESULT_FULL) != 0) {
+            player.playSound(
+                    player.getLocation(),
+                    Sound.ENTITY_EXPERIENCE_ORB_PICKUP,
+                    0.8f,
+                    2.0f
+            );
             
-            // Sound when charge is full
-            if (progress >= 1.0 && !state.reachedFullCharge) {
-                player.playSound(
-                        player.getLocation(),
-                        Sound.ENTITY_EXPERIENCE_ORB_PICKUP,
-                        0.8f,
-                        2.0f
-                );
-                
-                // Training system - count full charges
-                state.fullChargeCount++;
-                checkAbilityUnlocks(player, state);
-                
-                // Set cooldown - scales down with full charge count
-                // 0 charges = 1500ms, 20 charges = ~900ms, 40+ charges = 300ms min
-                charges = Math.min(state.fullChargeCount, MAX_SCALING_CHARGES);
-                long cooldown = Math.max(MIN_COOLDOWN_MS, BASE_COOLDOWN_MS - (charges * 30L));
-                
-                state.reachedFullCharge = true;
-                state.chargeCooldownUntil = System.currentTimeMillis() + cooldown;
-                state.charging = false;
-            }
+            // Training system - count full charges
+            int fullCharges = state.profile.getFullChargeCount() + 1;
+            state.profile.setFullChargeCount(fullCharges);
+            engine.setScaling(slot, fullCharges);
+            checkAbilityUnlocks(player, state.profile);
+            Bukkit.getPluginManager().callEvent(new ManaFullChargeEvent(player, fullCharges));
+            
+            // Set cooldown - scales down with full charge count
+            // 0 charges = 1500ms, 20 charges = ~900ms, 40+ charges = 300ms min
+            int charges = Math.min(fullCharges, MAX_SCALING_CHARGES);
+            long cooldown = Math.max(MIN_COOLDOWN_MS, BASE_COOLDOWN_MS - (charges * 30L));
+            engine.markFull(slot, now + TickClock.msToTicks(cooldown));
+        }
 
-            bar.setProgress(progress);
+        renderBar(state);
 
-            // stays visible until drained
-            if (progress <= 0.0 && !state.charging) {
-                bar.setVisible(false);
-            }
+        // Idle again - stop ticking until the next sneak, charge or consume
+        if (engine.isSettled(slot)) {
+            engine.deactivate(slot);
         }
     }
 
@@ -321,18 +325,32 @@ public class ChargeBarManager implements Listener {
             }
         }
         states.clear();
+        synchronized (slotLock) {
+            Arrays.fill(slotStates, null);
+        }
+        engine.releaseAll();
+    }
+
+    /** Apply a freshly loaded settings snapshot to existing players' bars. */
+    public void applySettings(PluginSettings settings) {
+        for (PlayerChargeState state : states.values()) {
+            if (state.bar != null) {
+                state.bar.setThreshold(settings.manaBarThreshold());
+            }
+        }
     }
 
     // -------- Public API --------
 
     public void unlockMana(Player player) {
         PlayerChargeState state = states.computeIfAbsent(player.getUniqueId(), k -> createState(player));
-        boolean wasUnlocked = state.manaUnlocked;
-        state.manaUnlocked = true;
+        boolean wasUnlocked = engine.isUnlocked(state.slot);
+        engine.setFlag(state.slot, ManaEngine.FLAG_UNLOCKED, true);
+        state.profile.setManaUnlocked(true);
         
         // Only show message once when first unlocked
-        if (!wasUnlocked && !state.hasReceivedManaMessage) {
-            state.hasReceivedManaMessage = true;
+        if (!wasUnlocked && !state.profile.hasReceivedManaMessage()) {
+            state.profile.setReceivedManaMessage(true);
             player.sendMessage(net.kyori.adventure.text.Component.text("§d✦ Your mana has been awakened! ✦"));
             player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.5f);
         }
@@ -340,41 +358,35 @@ public class ChargeBarManager implements Listener {
 
     public boolean hasManaUnlocked(Player player) {
         PlayerChargeState state = states.get(player.getUniqueId());
-        return state != null && state.manaUnlocked;
+        return state != null && engine.isUnlocked(state.slot);
     }
 
     public double getChargeProgress(Player player) {
         PlayerChargeState state = states.get(player.getUniqueId());
-        if (state == null || state.bar == null || !state.manaUnlocked) {
+        if (state == null || !engine.isUnlocked(state.slot)) {
             return 0.0;
         }
-        return state.bar.getProgress();
+        return engine.getProgress(state.slot);
     }
 
     public void resetCharge(Player player) {
         PlayerChargeState state = states.get(player.getUniqueId());
-        if (state == null || state.bar == null) return;
-        state.bar.setProgress(0.0);
-        if (!state.charging) {
-            state.bar.setVisible(false);
-        }
+        if (state == null) return;
+        engine.setProgress(state.slot, 0.0);
+        renderBar(state);
     }
 
     /** Consume [amount] charge; returns false if not enough. */
     public boolean consumeCharge(Player player, double amount) {
         PlayerChargeState state = states.get(player.getUniqueId());
-        if (state == null || state.bar == null || !state.manaUnlocked) return false;
+        if (state == null || !engine.isUnlocked(state.slot)) return false;
 
-        double progress = state.bar.getProgress();
+        double progress = engine.getProgress(state.slot);
         if (progress < amount) return false;
 
-        progress -= amount;
-        if (progress < 0.0) progress = 0.0;
-
-        state.bar.setProgress(progress);
-        if (progress <= 0.0 && !state.charging) {
-            state.bar.setVisible(false);
-        }
+        engine.setProgress(state.slot, progress - amount);
+        engine.activate(state.slot);
+        renderBar(state);
         return true;
     }
 
@@ -388,118 +400,124 @@ public class ChargeBarManager implements Listener {
         PlayerChargeState state = states.get(player.getUniqueId());
         if (state == null) return;
         
-        state.manaDisruptedUntil = System.currentTimeMillis() + durationMs;
-        state.charging = false;
+        engine.setDisruptedUntil(state.slot, clock.afterMs(durationMs));
+        engine.setFlag(state.slot, ManaEngine.FLAG_CHARGING, false);
         
         // Force stop charging visually
         if (state.bar != null) {
             state.bar.setTitle("§c✖ DISRUPTED ✖");
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            plugin.getTimingWheel().scheduleFor(TickClock.msToTicks(durationMs), player, () -> {
                 if (state.bar != null) {
                     state.bar.setTitle("Mana");
                 }
-            }, durationMs / 50); // Convert ms to ticks
+            });
         }
     }
     
     public boolean isManaDisrupted(Player player) {
         PlayerChargeState state = states.get(player.getUniqueId());
         if (state == null) return false;
-        return System.currentTimeMillis() < state.manaDisruptedUntil;
+        return !clock.hasPassed(engine.getDisruptedUntil(state.slot));
     }
 
     // -------- Training System --------
     
-    private void checkAbilityUnlocks(Player player, PlayerChargeState state) {
+    private void checkAbilityUnlocks(Player player, PlayerProfile profile) {
+        int fullCharges = profile.getFullChargeCount();
+        
         // Check Mana Run unlock
-        if (!state.manaRunUnlocked && state.fullChargeCount >= MANA_RUN_THRESHOLD) {
-            state.manaRunUnlocked = true;
+        if (!profile.isManaRunUnlocked() && fullCharges >= MANA_RUN_THRESHOLD) {
+            profile.setManaRunUnlocked(true);
             player.sendMessage("§6§l✦ ABILITY UNLOCKED: §b§lMANA RUN §6§l✦");
             player.sendMessage("§7Sprint while releasing sneak with 30%+ mana to dash forward!");
             player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
-            plugin.getLogger().info(player.getName() + " unlocked Mana Run! (" + state.fullChargeCount + " charges)");
+            plugin.getLogger().info(player.getName() + " unlocked Mana Run! (" + fullCharges + " charges)");
         }
         
         // Check Mana Climb unlock
-        if (!state.manaClimbUnlocked && state.fullChargeCount >= MANA_CLIMB_THRESHOLD) {
-            state.manaClimbUnlocked = true;
+        if (!profile.isManaClimbUnlocked() && fullCharges >= MANA_CLIMB_THRESHOLD) {
+            profile.setManaClimbUnlocked(true);
             player.sendMessage("§6§l✦ ABILITY UNLOCKED: §a§lMANA CLIMB §6§l✦");
             player.sendMessage("§7Sprint into a wall while sneaking to climb!");
             player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
-            plugin.getLogger().info(player.getName() + " unlocked Mana Climb! (" + state.fullChargeCount + " charges)");
+            plugin.getLogger().info(player.getName() + " unlocked Mana Climb! (" + fullCharges + " charges)");
         }
         
         // Check Mana Dash unlock
-        if (!state.manaDashUnlocked && state.fullChargeCount >= MANA_DASH_THRESHOLD) {
-            state.manaDashUnlocked = true;
+        if (!profile.isManaDashUnlocked() && fullCharges >= MANA_DASH_THRESHOLD) {
+            profile.setManaDashUnlocked(true);
             player.sendMessage("§6§l✦ ABILITY UNLOCKED: §d§lMANA DASH §6§l✦");
             player.sendMessage("§7Double-tap sneak while moving to dash!");
             player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
-            plugin.getLogger().info(player.getName() + " unlocked Mana Dash! (" + state.fullChargeCount + " charges)");
+            plugin.getLogger().info(player.getName() + " unlocked Mana Dash! (" + fullCharges + " charges)");
         }
     }
     
     public boolean hasManaRunUnlocked(Player player) {
-        PlayerChargeState state = states.get(player.getUniqueId());
+        return hasManaRunUnlocked(profiles.getIfOnline(player.getUniqueId()));
+    }
+    
+    public boolean hasManaRunUnlocked(PlayerProfile profile) {
         // If training is disabled in config, always return true
-        if (!plugin.getConfig().getBoolean("training.enabled", true)) return true;
-        return state != null && state.manaRunUnlocked;
+        if (!plugin.getSettings().trainingEnabled()) return true;
+        return profile != null && profile.isManaRunUnlocked();
     }
     
     public boolean hasManaClimbUnlocked(Player player) {
-        PlayerChargeState state = states.get(player.getUniqueId());
-        if (!plugin.getConfig().getBoolean("training.enabled", true)) return true;
-        return state != null && state.manaClimbUnlocked;
+        if (!plugin.getSettings().trainingEnabled()) return true;
+        PlayerProfile profile = profiles.getIfOnline(player.getUniqueId());
+        return profile != null && profile.isManaClimbUnlocked();
     }
     
     public boolean hasManaDashUnlocked(Player player) {
-        PlayerChargeState state = states.get(player.getUniqueId());
-        if (!plugin.getConfig().getBoolean("training.enabled", true)) return true;
-        return state != null && state.manaDashUnlocked;
+        if (!plugin.getSettings().trainingEnabled()) return true;
+        PlayerProfile profile = profiles.getIfOnline(player.getUniqueId());
+        return profile != null && profile.isManaDashUnlocked();
     }
     
     public int getFullChargeCount(Player player) {
-        PlayerChargeState state = states.get(player.getUniqueId());
-        return state != null ? state.fullChargeCount : 0;
+        PlayerProfile profile = profiles.getIfOnline(player.getUniqueId());
+        return profile != null ? profile.getFullChargeCount() : 0;
     }
     
     public void setFullChargeCount(Player player, int count) {
         PlayerChargeState state = states.computeIfAbsent(player.getUniqueId(), k -> createState(player));
-        state.fullChargeCount = Math.max(0, count);
+        state.profile.setFullChargeCount(Math.max(0, count));
+        engine.setScaling(state.slot, state.profile.getFullChargeCount());
         // Check ability unlocks based on new count
-        checkAbilityUnlocks(player, state);
+        checkAbilityUnlocks(player, state.profile);
     }
     
     // -------- Admin Grant Methods --------
     
     public void grantManaRun(Player player) {
-        PlayerChargeState state = states.computeIfAbsent(player.getUniqueId(), k -> createState(player));
-        if (!state.manaRunUnlocked) {
-            state.manaRunUnlocked = true;
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        if (!profile.isManaRunUnlocked()) {
+            profile.setManaRunUnlocked(true);
             player.sendMessage("§6§l✦ ABILITY GRANTED: §b§lMANA RUN §6§l✦");
             player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
         }
     }
     
     public void grantManaClimb(Player player) {
-        PlayerChargeState state = states.computeIfAbsent(player.getUniqueId(), k -> createState(player));
-        if (!state.manaClimbUnlocked) {
-            state.manaClimbUnlocked = true;
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        if (!profile.isManaClimbUnlocked()) {
+            profile.setManaClimbUnlocked(true);
             player.sendMessage("§6§l✦ ABILITY GRANTED: §a§lMANA CLIMB §6§l✦");
             player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
         }
     }
     
     public void grantManaDash(Player player) {
-        PlayerChargeState state = states.computeIfAbsent(player.getUniqueId(), k -> createState(player));
-        if (!state.manaDashUnlocked) {
-            state.manaDashUnlocked = true;
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        if (!profile.isManaDashUnlocked()) {
+            profile.setManaDashUnlocked(true);
             player.sendMessage("§6§l✦ ABILITY GRANTED: §d§lMANA DASH §6§l✦");
             player.playSound(player.getLocation(), Sound.UI_TOAST_CHALLENGE_COMPLETE, 1.0f, 1.0f);
         }
     }
     
-    public Plugin getPlugin() {
+    public Mcroguelite getPlugin() {
         return plugin;
     }
 }
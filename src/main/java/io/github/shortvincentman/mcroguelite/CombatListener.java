@@ -48,7 +48,7 @@ public class CombatListener implements Listener {
                 event.setDamage(newDamage);
                 
                 // Purple damage indicator particles
-                target.getWorld().spawnParticle(Particle.DUST, target.getLocation().add(0, 1, 0),
+                plugin.getParticleService().spawn(Particle.DUST, target.getLocation().add(0, 1, 0),
                         8, 0.3, 0.4, 0.3, 0,
                         new Particle.DustOptions(Color.fromRGB(128, 0, 255), 1.0f));
             }
@@ -110,7 +110,8 @@ public class CombatListener implements Listener {
         if (charge <= 0.0) return;
 
         double baseDamage = event.getDamage();
-        double multiplier = 1.0 + 0.5 * charge; // up to +50% at full charge
+        double maxMultiplier = plugin.getSettings().maxDamageMultiplier();
+        double multiplier = 1.0 + (maxMultiplier - 1.0) * charge; // up to max-damage-multiplier at full charge
         event.setDamage(baseDamage * multiplier);
 
         // MANA DISRUPTION: If target is a player, disrupt their mana!
@@ -121,7 +122,7 @@ public class CombatListener implements Listener {
                 player.sendMessage("§aYou disrupted " + target.getName() + "'s mana!");
                 
                 // Extra disruption particles
-                target.getWorld().spawnParticle(
+                plugin.getParticleService().spawn(
                         Particle.SMOKE,
                         target.getLocation().add(0, 1, 0),
                         15, 0.3, 0.5, 0.3, 0.05
@@ -134,7 +135,7 @@ public class CombatListener implements Listener {
         Color color = ManaColorUtil.getColorForLevel(fullCharges);
         
         // Dust particles with mana color
-        event.getEntity().getWorld().spawnParticle(
+        plugin.getParticleService().spawn(
                 Particle.DUST,
                 event.getEntity().getLocation().add(0, 1.0, 0),
                 20,
@@ -143,22 +144,15 @@ public class CombatListener implements Listener {
                 ManaColorUtil.getDustOptions(fullCharges, 1.2f)
         );
         
-        // Additional ENTITY_EFFECT particles for potion-style burst
-        for (int i = 0; i < 10; i++) {
-            event.getEntity().getWorld().spawnParticle(
-                    Particle.ENTITY_EFFECT,
-                    event.getEntity().getLocation().add(
-                            (Math.random() - 0.5) * 0.6,
-                            1.0 + Math.random() * 0.5,
-                            (Math.random() - 0.5) * 0.6
-                    ),
-                    0,
-                    color.getRed() / 255.0,
-                    color.getGreen() / 255.0,
-                    color.getBlue() / 255.0,
-                    1.0
-            );
-        }
+        // Potion-style burst in the mana color - one spread spawn; ENTITY_EFFECT takes its color as data
+        plugin.getParticleService().spawn(
+                Particle.ENTITY_EFFECT,
+                event.getEntity().getLocation().add(0, 1.25, 0),
+                10,
+                0.3, 0.25, 0.3,
+                0,
+                color
+        );
         
         event.getEntity().getWorld().playSound(
                 event.getEntity().getLocation(),
@@ -1,5 +1,11 @@
 package io.github.shortvincentman.mcroguelite;
 
+import io.github.shortvincentman.mcroguelite.effect.EffectTicker;
+import io.github.shortvincentman.mcroguelite.particle.ParticleService;
+import io.github.shortvincentman.mcroguelite.profile.ProfileCache;
+import io.github.shortvincentman.mcroguelite.scheduler.TickBudget;
+import io.github.shortvincentman.mcroguelite.storage.PlayerDataMigrator;
+import io.github.shortvincentman.mcroguelite.storage.PlayerDataStore;
 import io.github.shortvincentman.mcroguelite.util.ManaColorUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -7,10 +13,22 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
 public class MainCommand implements CommandExecutor {
 
+    // How long a migration waits for queued saves to reach the YAML files
+    private static final long MIGRATION_FLUSH_TIMEOUT_MS = 30_000;
+
     private final Mcroguelite plugin;
     private final ChargeBarManager chargeBarManager;
+    // Only one migration may run at a time
+    private final AtomicBoolean migrating = new AtomicBoolean(false);
 
     public MainCommand(Mcroguelite plugin, ChargeBarManager chargeBarManager) {
         this.plugin = plugin;
@@ -28,6 +46,10 @@ public class MainCommand implements CommandExecutor {
             sender.sendMessage("§e/mcroguelite grantclimb <player> §7- Grant Mana Climb ability");
             sender.sendMessage("§e/mcroguelite grantdash <player> §7- Grant Mana Dash ability");
             sender.sendMessage("§e/mcroguelite setcharges <player> <count> §7- Set full charge count");
+            sender.sendMessage("§e/mcroguelite reload §7- Reload config.yml");
+            sender.sendMessage("§e/mcroguelite budget §7- Show plugin time per tick and skipped cosmetics");
+            sender.sendMessage("§e/mcroguelite effects §7- Show live spell effects and their tick cost");
+            sender.sendMessage("§e/mcroguelite migrate <sqlite|mapped> §7- Convert playerdata/*.yml to another store");
             sender.sendMessage("§e/givetome [tier] §7- Get a spell tome");
             sender.sendMessage("§e/learnspell <spell> §7- Learn a spell");
             sender.sendMessage("§e/selectspell <spell> §7- Select a spell");
@@ -152,7 +174,150 @@ public class MainCommand implements CommandExecutor {
             return true;
         }
 
+        if (args[0].equalsIgnoreCase("reload")) {
+            if (!sender.hasPermission("mcroguelite.admin")) {
+                sender.sendMessage("§cNo permission!");
+                return true;
+            }
+            plugin.reloadSettings();
+            sender.sendMessage("§aMcRogueLite config reloaded.");
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("budget")) {
+            if (!sender.hasPermission("mcroguelite.admin")) {
+                sender.sendMessage("§cNo permission!");
+                return true;
+            }
+            showBudget(sender);
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("effects")) {
+            if (!sender.hasPermission("mcroguelite.admin")) {
+                sender.sendMessage("§cNo permission!");
+                return true;
+            }
+            showEffectStats(sender);
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("migrate")) {
+            if (!sender.hasPermission("mcroguelite.admin")) {
+                sender.sendMessage("§cNo permission!");
+                return true;
+            }
+            if (args.length < 2) {
+                sender.sendMessage("§cUsage: /mcroguelite migrate <sqlite|mapped>");
+                return true;
+            }
+            startMigration(sender, args[1].toLowerCase(Locale.ROOT));
+            return true;
+        }
+
         sender.sendMessage("§cUnknown subcommand. Use /mcroguelite help");
         return true;
     }
+
+    private void showBudget(CommandSender sender) {
+        TickBudget budget = plugin.getTickBudget();
+        if (!budget.isActive()) {
+            sender.sendMessage("§7The tick budget is off on region-threaded servers.");
+            return;
+        }
+        sender.sendMessage("§6Tick budget: §b" + formatMs(budget.getBudgetNanos()) + "ms"
+                + (budget.isYielding() ? " §c(yielding, server at " : " §7(server at ")
+                + String.format("%.1f", budget.getLastMspt()) + " mspt)");
+        sender.sendMessage("§7Last tick: §b" + formatMs(budget.getLastTickNanos()) + "ms §7avg §b"
+                + formatMs(budget.getAverageNanos()) + "ms §7max §b" + formatMs(budget.getMaxNanos()) + "ms §7(last 100 ticks)");
+        sender.sendMessage("§7Over budget: §b" + budget.getOverBudgetTicks() + " ticks");
+        sender.sendMessage("§7Cosmetics skipped: §b" + budget.getSkippedCount() + " §7deferred: §b" + budget.getDeferredCount()
+                + " §7dropped: §b" + budget.getDroppedCount() + " §7queued: §b" + budget.getQueuedCount());
+        ParticleService particles = plugin.getParticleService();
+        sender.sendMessage("§7Particle sends: §b" + particles.getSentCount() + " §7trimmed: §b" + particles.getTrimmedCount()
+                + " §7skipped: §b" + particles.getSkippedCount());
+    }
+
+    private static String formatMs(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    private void showEffectStats(CommandSender sender) {
+        EffectTicker ticker = plugin.getEffectTicker();
+        sender.sendMessage("§6Spell effects: §b" + ticker.getActive().size() + " live");
+        for (Map.Entry<String, EffectTicker.Stats> entry : ticker.getStats().entrySet()) {
+            EffectTicker.Stats stats = entry.getValue();
+            double avgMicros = stats.getRuns() == 0 ? 0 : stats.getTotalNanos() / 1000.0 / stats.getRuns();
+            sender.sendMessage("§e" + entry.getKey() + "§7: " + stats.getActive() + " live, " + stats.getRuns() + " ticks, avg "
+                    + String.format("%.1f", avgMicros) + "µs, max " + String.format("%.1f", stats.getMaxNanos() / 1000.0) + "µs");
+        }
+    }
+
+    /**
+     * Convert playerdata/*.yml into a new store file on a background thread.
+     * Only while YAML is the live store, after queued saves are flushed. The
+     * live store is never the target, so the running server is unaffected;
+     * switch storage.type and restart afterwards.
+     */
+    private void startMigration(CommandSender sender, String type) {
+        File target;
+        if (type.equals("sqlite")) {
+            target = new File(plugin.getDataFolder(), "playerdata.db");
+        } else if (type.equals("mapped")) {
+            target = new File(plugin.getDataFolder(), "playerdata.dat");
+        } else {
+            sender.sendMessage("§cUnknown store type. Use sqlite or mapped.");
+            return;
+        }
+        // The source is playerdata/*.yml, which is only current while YAML is the live store.
+        // Ask the cache what it opened: storage.type can be reloaded, the store can't.
+        ProfileCache profiles = plugin.getProfileCache();
+        String storeType = profiles.getStoreType();
+        if (!storeType.equals("yaml")) {
+            sender.sendMessage("§cMigration reads the YAML player files, but the server is using " + storeType
+                    + " storage. Set storage.type to yaml and restart first.");
+            return;
+        }
+        if (target.getAbsoluteFile().equals(profiles.getStoreFile().getAbsoluteFile())) {
+            sender.sendMessage("§c" + target.getName() + " is the live player store; refusing to migrate into it.");
+            return;
+        }
+        if (!migrating.compareAndSet(false, true)) {
+            sender.sendMessage("§cA migration is already running.");
+            return;
+        }
+
+        // Queue pending progress of online players; the migration waits for it to reach the YAML files
+        profiles.autosaveDirty();
+        File source = new File(plugin.getDataFolder(), "playerdata");
+        sender.sendMessage("§eMigrating player data to " + target.getName() + "... (progress in console)");
+
+        plugin.getTaskScheduler().runAsync(() -> {
+            String message;
+            try {
+                if (!profiles.flush(MIGRATION_FLUSH_TIMEOUT_MS)) {
+                    throw new IOException("pending player saves did not finish writing in time");
+                }
+                PlayerDataStore store = PlayerDataMigrator.openTarget(type, target, plugin.getLogger());
+                try {
+                    int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+                    PlayerDataMigrator.Result result = new PlayerDataMigrator(plugin.getLogger(), threads).migrate(source, store);
+                    message = "§aMigrated " + result.migrated() + "/" + result.total() + " players in " + result.elapsedMs() + " ms"
+                            + (result.skipped() > 0 ? " §c(" + result.skipped() + " skipped, see console)" : "")
+                            + "§a. Set storage.type to " + type + " and restart to use it.";
+                } finally {
+                    store.close();
+                }
+            } catch (IOException e) {
+                message = "§cMigration failed: " + e.getMessage();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "Player data migration failed", e);
+                message = "§cMigration failed: " + e + " (see console)";
+            } finally {
+                migrating.set(false);
+            }
+            String finalMessage = message;
+            plugin.getTaskScheduler().run(() -> sender.sendMessage(finalMessage));
+        });
+    }
 }
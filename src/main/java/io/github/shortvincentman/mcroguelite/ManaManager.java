@@ -1,27 +1,58 @@
 package io.github.shortvincentman.mcroguelite;
 
+import io.github.shortvincentman.mcroguelite.profile.PlayerProfile;
+import io.github.shortvincentman.mcroguelite.profile.ProfileCache;
+import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
 
+/**
+ * Mana attunement level.
+ * The level is read from the player's PDC once and then kept in their profile;
+ * changes only touch the cached value and are written back to the PDC by
+ * flush() (on quit and periodically).
+ */
 public class ManaManager {
 
     private final NamespacedKey manaLevelKey;
+    private final ProfileCache profiles;
 
-    public ManaManager(Plugin plugin) {
+    public ManaManager(Plugin plugin, ProfileCache profiles) {
         this.manaLevelKey = new NamespacedKey(plugin, "mana_level");
+        this.profiles = profiles;
     }
 
     public int getManaLevel(Player player) {
-        return player.getPersistentDataContainer()
-                .getOrDefault(manaLevelKey, PersistentDataType.INTEGER, 0);
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        int level = profile.getAttunementLevel();
+        if (level < 0) {
+            level = player.getPersistentDataContainer()
+                    .getOrDefault(manaLevelKey, PersistentDataType.INTEGER, 0);
+            profile.loadAttunementLevel(level);
+        }
+        return level;
     }
 
     public void addManaLevel(Player player, int amount) {
-        int current = getManaLevel(player);
-        int newLevel = Math.max(0, current + amount);
+        int newLevel = Math.max(0, getManaLevel(player) + amount);
+        profiles.get(player.getUniqueId()).setAttunementLevel(newLevel);
+    }
+
+    /** Write a changed attunement level back to the player's PDC. */
+    public void flush(Player player) {
+        PlayerProfile profile = profiles.getIfOnline(player.getUniqueId());
+        if (profile == null || !profile.isAttunementDirty()) return;
+
         player.getPersistentDataContainer()
-                .set(manaLevelKey, PersistentDataType.INTEGER, newLevel);
+                .set(manaLevelKey, PersistentDataType.INTEGER, profile.getAttunementLevel());
+        profile.markAttunementWritten();
+    }
+
+    public void flushAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            flush(player);
+        }
     }
 }
@@ -1,12 +1,12 @@
 package io.github.shortvincentman.mcroguelite;
 
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickContext;
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickPipeline;
 import io.github.shortvincentman.mcroguelite.util.ManaColorUtil;
-import org.bukkit.Bukkit;
 import org.bukkit.Particle;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 /**
  * Simple mana run system:
@@ -15,34 +15,19 @@ import org.bukkit.scheduler.BukkitRunnable;
  * - No activation needed - passive effect while mana > 0
  */
 public class ManaRunListener {
-    private final Mcroguelite plugin;
     private final ChargeBarManager chargeBarManager;
-    private BukkitRunnable tickTask;
 
-    public ManaRunListener(Mcroguelite plugin, ChargeBarManager chargeBarManager) {
-        this.plugin = plugin;
+    public ManaRunListener(PlayerTickPipeline pipeline, ChargeBarManager chargeBarManager) {
         this.chargeBarManager = chargeBarManager;
-        startTickTask();
+        pipeline.register("mana-run", 10, this::processPlayer); // Every 0.5 seconds
     }
 
-    private void startTickTask() {
-        tickTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    processPlayer(player);
-                }
-            }
-        };
-        tickTask.runTaskTimer(plugin, 0L, 10L); // Every 0.5 seconds
-    }
+    private void processPlayer(PlayerTickContext ctx) {
+        // Must have mana unlocked and Mana Run trained (locked mana reads as 0)
+        if (!chargeBarManager.hasManaRunUnlocked(ctx.profile())) return;
 
-    private void processPlayer(Player player) {
-        // Must have mana unlocked and Mana Run trained
-        if (!chargeBarManager.hasManaUnlocked(player)) return;
-        if (!chargeBarManager.hasManaRunUnlocked(player)) return;
-
-        double mana = chargeBarManager.getChargeProgress(player);
+        double mana = ctx.mana();
+        Player player = ctx.player();
         
         // If player has mana, give speed effect and particles
         if (mana > 0.01) {
@@ -57,11 +42,11 @@ public class ManaRunListener {
             ));
 
             // Spawn mana-colored particles at feet while moving
-            if (player.isSprinting()) {
-                int fullCharges = chargeBarManager.getFullChargeCount(player);
+            if (ctx.isSprinting()) {
+                int fullCharges = ctx.profile().getFullChargeCount();
                 player.getWorld().spawnParticle(
                         Particle.DUST,
-                        player.getLocation().add(0, 0.1, 0),
+                        ctx.location().clone().add(0, 0.1, 0),
                         3, 0.15, 0.05, 0.15, 0,
                         ManaColorUtil.getDustOptions(fullCharges, 0.8f)
                 );
@@ -73,10 +58,4 @@ public class ManaRunListener {
         double mana = chargeBarManager.getChargeProgress(player);
         return mana > 0.01 && chargeBarManager.hasManaRunUnlocked(player);
     }
-
-    public void cleanup() {
-        if (tickTask != null) {
-            tickTask.cancel();
-        }
-    }
 }
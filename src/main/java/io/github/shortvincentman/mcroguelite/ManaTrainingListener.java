@@ -1,46 +1,43 @@
 package io.github.shortvincentman.mcroguelite;
 
-import org.bukkit.Bukkit;
+import io.github.shortvincentman.mcroguelite.mana.ManaFullChargeEvent;
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickPipeline;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.plugin.Plugin;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 public class ManaTrainingListener implements Listener {
 
     private final ChargeBarManager chargeBarManager;
     private final ManaManager manaManager;
 
-    private final Map<UUID, Double> lastProgress = new HashMap<>();
-
-    public ManaTrainingListener(Plugin plugin, ChargeBarManager chargeBarManager, ManaManager manaManager) {
+    public ManaTrainingListener(Mcroguelite plugin, PlayerTickPipeline pipeline, ChargeBarManager chargeBarManager,
+                                ManaManager manaManager) {
         this.chargeBarManager = chargeBarManager;
         this.manaManager = manaManager;
 
-        Bukkit.getScheduler().runTaskTimer(
-                plugin,
-                this::tickTraining,
-                0L,
-                4L // ~0.2s
-        );
+        // Attunement changes are cached; write them back alongside the regular autosave
+        long interval = plugin.getSettings().autosaveIntervalTicks();
+        if (interval > 0) {
+            pipeline.register("attunement-flush", (int) Math.min(interval, Integer.MAX_VALUE),
+                    ctx -> manaManager.flush(ctx.player()));
+        }
     }
 
-    private void tickTraining() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            double current = chargeBarManager.getChargeProgress(player);
-            double last = lastProgress.getOrDefault(player.getUniqueId(), 0.0);
+    @EventHandler
+    public void onFullCharge(ManaFullChargeEvent event) {
+        // Full bar reached while sneaking → training "tick"
+        Player player = event.getPlayer();
+        if (!player.isSneaking()) return;
 
-            // Full bar reached while sneaking → training "tick"
-            if (last < 1.0 && current >= 1.0 && player.isSneaking()) {
-                manaManager.addManaLevel(player, 1);
-                player.sendMessage("§bYour mana attunement grows. Level: " + manaManager.getManaLevel(player));
-                chargeBarManager.resetCharge(player);
-            }
+        manaManager.addManaLevel(player, 1);
+        player.sendMessage("§bYour mana attunement grows. Level: " + manaManager.getManaLevel(player));
+        chargeBarManager.resetCharge(player);
+    }
 
-            lastProgress.put(player.getUniqueId(), current);
-        }
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        manaManager.flush(event.getPlayer());
     }
 }
@@ -2,8 +2,21 @@ package io.github.shortvincentman.mcroguelite;
 
 import io.github.shortvincentman.mcroguelite.climbing.ClimbingSystem;
 import io.github.shortvincentman.mcroguelite.commands.TomeCommands;
+import io.github.shortvincentman.mcroguelite.config.PluginSettings;
+import io.github.shortvincentman.mcroguelite.effect.EffectTicker;
 import io.github.shortvincentman.mcroguelite.gui.SpellSelectionGUI;
 import io.github.shortvincentman.mcroguelite.items.SpellScroll;
+import io.github.shortvincentman.mcroguelite.particle.ParticleService;
+import io.github.shortvincentman.mcroguelite.planning.CastPlanner;
+import io.github.shortvincentman.mcroguelite.profile.ProfileCache;
+import io.github.shortvincentman.mcroguelite.projectile.ProjectileEngine;
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickPipeline;
+import io.github.shortvincentman.mcroguelite.scheduler.TaskScheduler;
+import io.github.shortvincentman.mcroguelite.scheduler.TickBudget;
+import io.github.shortvincentman.mcroguelite.scheduler.TickClock;
+import io.github.shortvincentman.mcroguelite.scheduler.TimingWheel;
+import io.github.shortvincentman.mcroguelite.spatial.EntityIndex;
+import io.github.shortvincentman.mcroguelite.spatial.TriggerRegistry;
 import io.github.shortvincentman.mcroguelite.tome.SpellTome;
 import io.github.shortvincentman.mcroguelite.tome.TomeSpellListener;
 import org.bukkit.Bukkit;
@@ -11,7 +24,22 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 public final class Mcroguelite extends JavaPlugin {
 
+    private TaskScheduler taskScheduler;
+    private TickClock tickClock;
+    private TickBudget tickBudget;
+    private ParticleService particleService;
+    private TimingWheel timingWheel;
+    private EffectTicker effectTicker;
+    private CastPlanner castPlanner;
+    private EntityIndex entityIndex;
+    private ProjectileEngine projectileEngine;
+    private TriggerRegistry triggerRegistry;
+    // Swapped atomically on reload; readers always see one complete snapshot
+    private volatile PluginSettings settings;
+    private ProfileCache profileCache;
     private ChargeBarManager chargeBarManager;
+    private PlayerTickPipeline playerTickPipeline;
+    private TaskScheduler.Task autosaveTask;
     private SpellManager spellManager;
     private ItemSpellListener itemSpellListener;
     
@@ -27,21 +55,63 @@ public final class Mcroguelite extends JavaPlugin {
     public void onEnable() {
         // Save default config
         saveDefaultConfig();
+        this.settings = PluginSettings.from(getConfig());
         
-        this.chargeBarManager = new ChargeBarManager(this);
+        // Main thread on Paper, global/region/entity schedulers on Folia
+        this.taskScheduler = TaskScheduler.create(this);
+        if (taskScheduler.isRegionized()) {
+            getLogger().info("Region-threaded server detected, using region schedulers.");
+        }
+        // Shared tick clock - started first so it advances before every other task each tick
+        this.tickClock = new TickClock();
+        tickClock.start(taskScheduler);
+        // Per-tick time budget - cosmetic work backs off when the plugin or server is over
+        this.tickBudget = new TickBudget(taskScheduler, tickClock, settings, getLogger());
+        // Spell particles go to each viewer at a distance-based level of detail, within per-tick budgets
+        this.particleService = new ParticleService(tickClock, settings);
+        // One-shot delayed cleanups (spell blocks, mark expiry) share one wheel
+        this.timingWheel = new TimingWheel(taskScheduler, getLogger());
+        timingWheel.start();
+        // Every live spell effect (projectiles, channels, traps) runs from this one task
+        this.effectTicker = new EffectTicker(taskScheduler, tickClock, tickBudget, getLogger());
+        effectTicker.start();
+        // Block searches for casts run off-thread against chunk snapshots
+        this.castPlanner = new CastPlanner(taskScheduler, tickClock, getLogger());
+        // Spell target queries (hits, blasts, cones) - only the queried chunks are read, once per tick
+        this.entityIndex = new EntityIndex(taskScheduler, tickClock);
+        // Spell bolts sweep their path each tick and run on the effect ticker
+        this.projectileEngine = new ProjectileEngine(effectTicker, entityIndex);
+        // Trap volumes - checked together against the entity index once per tick
+        this.triggerRegistry = new TriggerRegistry(taskScheduler, tickBudget, entityIndex, getLogger());
+        triggerRegistry.start();
+        
+        this.profileCache = new ProfileCache(this);
+        this.chargeBarManager = new ChargeBarManager(this, tickClock, profileCache);
+        // One pass over online players per tick; systems below register their stages on it
+        this.playerTickPipeline = new PlayerTickPipeline(taskScheduler, tickClock, tickBudget, profileCache,
+                chargeBarManager::getChargeProgress, getLogger());
+        // Mana bars tick only the active chargers (a pipeline stage on Folia)
+        chargeBarManager.start(taskScheduler, playerTickPipeline);
         this.spellManager = new SpellManager(this, chargeBarManager);
         this.itemSpellListener = new ItemSpellListener(this, spellManager);
         
         // Initialize new systems
         this.spellTome = new SpellTome(this);
         this.tomeSpellListener = new TomeSpellListener(this, spellTome, chargeBarManager);
-        this.manaRunListener = new ManaRunListener(this, chargeBarManager);
-        this.climbingSystem = new ClimbingSystem(this, chargeBarManager);
+        this.manaRunListener = new ManaRunListener(playerTickPipeline, chargeBarManager);
+        this.climbingSystem = new ClimbingSystem(this, chargeBarManager, profileCache, playerTickPipeline);
         this.spellScroll = new SpellScroll(this, spellTome, chargeBarManager);
         this.spellGUI = new SpellSelectionGUI(spellTome, tomeSpellListener);
 
         // Events - Core
+        Bukkit.getPluginManager().registerEvents(tickBudget, this);
+        Bukkit.getPluginManager().registerEvents(particleService, this);
+        Bukkit.getPluginManager().registerEvents(profileCache, this);
+        Bukkit.getPluginManager().registerEvents(effectTicker, this);
+        Bukkit.getPluginManager().registerEvents(entityIndex, this);
+        Bukkit.getPluginManager().registerEvents(triggerRegistry, this);
         Bukkit.getPluginManager().registerEvents(chargeBarManager, this);
+        Bukkit.getPluginManager().registerEvents(playerTickPipeline, this);
         Bukkit.getPluginManager().registerEvents(new CombatListener(this, chargeBarManager), this);
         Bukkit.getPluginManager().registerEvents(itemSpellListener, this);
         
@@ -78,36 +148,144 @@ public final class Mcroguelite extends JavaPlugin {
         getCommand("unlockmana").setTabCompleter(tomeCommands);
         getCommand("spellgui").setExecutor(tomeCommands);
 
-        // Tick charge bars: 0.02 charge / 0.03 drain per tick (~0.1s)
-        Bukkit.getScheduler().runTaskTimer(
-                this,
-                () -> chargeBarManager.tickAllBars(0.02, 0.03),
-                0L,
-                2L
-        );
+        playerTickPipeline.start();
+        scheduleAutosave();
         
         getLogger().info("MCRogueLite enabled with Tome System, Mana Run, Climbing, Spell Scrolls, and GUI!");
     }
 
     @Override
     public void onDisable() {
+        if (autosaveTask != null) {
+            autosaveTask.cancel();
+        }
+        // Stop spell effects first so nothing changes player state during the save
+        if (playerTickPipeline != null) {
+            playerTickPipeline.stop();
+        }
+        if (chargeBarManager != null) {
+            chargeBarManager.stop();
+        }
+        if (effectTicker != null) {
+            effectTicker.stop();
+        }
+        if (triggerRegistry != null) {
+            triggerRegistry.stop();
+        }
+        // Run pending cleanups now so spell blocks aren't left in the world
+        if (timingWheel != null) {
+            timingWheel.stop();
+            timingWheel.runAll();
+        }
         // Save all player data before clearing
+        if (profileCache != null) {
+            profileCache.saveAll(settings.shutdownFlushMs());
+        }
         if (chargeBarManager != null) {
-            chargeBarManager.saveAllPlayerData();
             chargeBarManager.clearAll();
         }
         if (tomeSpellListener != null) {
             tomeSpellListener.cleanup();
         }
-        if (manaRunListener != null) {
-            manaRunListener.cleanup();
-        }
         if (climbingSystem != null) {
             climbingSystem.cleanup();
         }
+        if (tickClock != null) {
+            tickClock.stop();
+        }
+    }
+    
+    /**
+     * Re-read config.yml and swap in a new settings snapshot.
+     */
+    public void reloadSettings() {
+        reloadConfig();
+        PluginSettings fresh = PluginSettings.from(getConfig());
+        this.settings = fresh;
+        if (chargeBarManager != null) {
+            chargeBarManager.applySettings(fresh);
+        }
+        if (tickBudget != null) {
+            tickBudget.applySettings(fresh);
+        }
+        if (particleService != null) {
+            particleService.applySettings(fresh);
+        }
+        scheduleAutosave();
+    }
+    
+    /**
+     * (Re)start the autosave timer at the configured interval.
+     */
+    private void scheduleAutosave() {
+        if (autosaveTask != null) {
+            autosaveTask.cancel();
+            autosaveTask = null;
+        }
+        long interval = settings.autosaveIntervalTicks();
+        if (interval <= 0) return;
+        
+        autosaveTask = taskScheduler.runTimer(
+                () -> {
+                    int saved = profileCache.autosaveDirty();
+                    if (saved > 0) {
+                        getLogger().fine("Autosaved mana data for " + saved + " players.");
+                    }
+                },
+                interval,
+                interval
+        );
     }
     
     // Getters for other classes
+    public PluginSettings getSettings() {
+        return settings;
+    }
+    
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+    
+    public TickClock getTickClock() {
+        return tickClock;
+    }
+    
+    public TickBudget getTickBudget() {
+        return tickBudget;
+    }
+    
+    public ParticleService getParticleService() {
+        return particleService;
+    }
+    
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+    
+    public EffectTicker getEffectTicker() {
+        return effectTicker;
+    }
+    
+    public CastPlanner getCastPlanner() {
+        return castPlanner;
+    }
+    
+    public EntityIndex getEntityIndex() {
+        return entityIndex;
+    }
+    
+    public ProjectileEngine getProjectileEngine() {
+        return projectileEngine;
+    }
+    
+    public TriggerRegistry getTriggerRegistry() {
+        return triggerRegistry;
+    }
+    
+    public ProfileCache getProfileCache() {
+        return profileCache;
+    }
+    
     public ChargeBarManager getChargeBarManager() {
         return chargeBarManager;
     }
@@ -1,5 +1,10 @@
 package io.github.shortvincentman.mcroguelite;
 
+import io.github.shortvincentman.mcroguelite.effect.SpellEffect;
+import io.github.shortvincentman.mcroguelite.planning.BlockView;
+import io.github.shortvincentman.mcroguelite.planning.CastPlanner;
+import io.github.shortvincentman.mcroguelite.projectile.Projectile;
+import io.github.shortvincentman.mcroguelite.spatial.TriggerRegistry;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
@@ -11,7 +16,6 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.Collection;
@@ -45,47 +49,37 @@ public class Spells {
         final double maxRange = 30.0;
         
         // Launch fireball projectile
-        new BukkitRunnable() {
-            Location loc = startLoc.clone();
-            double traveled = 0;
-            
+        barManager.getPlugin().getProjectileEngine().launch(new Projectile("ignis", player, startLoc, direction, speed, 1.0, maxRange) {
             @Override
-            public void run() {
-                // Move fireball
-                loc.add(direction.clone().multiply(speed));
-                traveled += speed;
-                
+            protected void onFlight(Location loc) {
                 // Large fireball particle effect
-                world.spawnParticle(Particle.FLAME, loc, 15, 0.3, 0.3, 0.3, 0.02);
-                world.spawnParticle(Particle.LAVA, loc, 3, 0.2, 0.2, 0.2, 0);
-                world.spawnParticle(Particle.SMOKE, loc, 8, 0.25, 0.25, 0.25, 0.01);
-                
-                // Orange/red dust core
-                world.spawnParticle(Particle.DUST, loc, 10, 0.2, 0.2, 0.2, 0,
-                        new Particle.DustOptions(org.bukkit.Color.fromRGB(255, 100, 0), 1.5f));
-                
-                // Check for hit on entity
-                LivingEntity hit = findHitEntity(player, loc, 1.8);
-                if (hit != null) {
-                    explodeFireball(loc, player, finalAccuracy, barManager, world);
-                    cancel();
-                    return;
-                }
-                
-                // Check for hit on block
-                if (loc.getBlock().getType().isSolid()) {
-                    explodeFireball(loc, player, finalAccuracy, barManager, world);
-                    cancel();
-                    return;
-                }
-                
-                // Max range reached
-                if (traveled >= maxRange) {
-                    explodeFireball(loc, player, finalAccuracy, barManager, world);
-                    cancel();
+                if (barManager.getPlugin().getTickBudget().allowCosmetic()) {
+                    barManager.getPlugin().getParticleService().spawn(Particle.FLAME, loc, 15, 0.3, 0.3, 0.3, 0.02);
+                    barManager.getPlugin().getParticleService().spawn(Particle.LAVA, loc, 3, 0.2, 0.2, 0.2, 0);
+                    barManager.getPlugin().getParticleService().spawn(Particle.SMOKE, loc, 8, 0.25, 0.25, 0.25, 0.01);
+                    
+                    // Orange/red dust core
+                    barManager.getPlugin().getParticleService().spawn(Particle.DUST, loc, 10, 0.2, 0.2, 0.2, 0,
+                            new Particle.DustOptions(org.bukkit.Color.fromRGB(255, 100, 0), 1.5f));
                 }
             }
-        }.runTaskTimer(barManager.getPlugin(), 0L, 1L);
+
+            // Entity, block or max range - it explodes either way
+            @Override
+            protected void onHitEntity(LivingEntity target, Location loc) {
+                explodeFireball(loc, player, finalAccuracy, barManager, world);
+            }
+
+            @Override
+            protected void onHitBlock(Location loc) {
+                explodeFireball(loc, player, finalAccuracy, barManager, world);
+            }
+
+            @Override
+            protected void onExpire(Location loc) {
+                explodeFireball(loc, player, finalAccuracy, barManager, world);
+            }
+        });
 
         world.playSound(player.getLocation(), Sound.ITEM_FIRECHARGE_USE, 1.2f, 0.8f);
         world.playSound(player.getLocation(), Sound.ENTITY_BLAZE_SHOOT, 1.0f, 0.7f);
@@ -94,22 +88,23 @@ public class Spells {
     }
     
     private static void explodeFireball(Location loc, Player caster, double accuracy, ChargeBarManager barManager, World world) {
-        // Explosion particles
-        world.spawnParticle(Particle.EXPLOSION, loc, 1, 0, 0, 0, 0);
-        world.spawnParticle(Particle.FLAME, loc, 50, 1.5, 1.5, 1.5, 0.1);
-        world.spawnParticle(Particle.LAVA, loc, 20, 1.0, 1.0, 1.0, 0);
-        world.spawnParticle(Particle.SMOKE, loc, 30, 1.2, 1.2, 1.2, 0.05);
-        
-        // Explosion sound
-        world.playSound(loc, Sound.ENTITY_GENERIC_EXPLODE, 1.0f, 1.2f);
-        world.playSound(loc, Sound.ENTITY_BLAZE_HURT, 1.0f, 0.8f);
+        // Explosion particles and sound - cosmetic, may be deferred under load
+        Location burst = loc.clone();
+        barManager.getPlugin().getTickBudget().cosmetic(() -> {
+            barManager.getPlugin().getParticleService().spawn(Particle.EXPLOSION, burst, 1, 0, 0, 0, 0);
+            barManager.getPlugin().getParticleService().spawn(Particle.FLAME, burst, 50, 1.5, 1.5, 1.5, 0.1);
+            barManager.getPlugin().getParticleService().spawn(Particle.LAVA, burst, 20, 1.0, 1.0, 1.0, 0);
+            barManager.getPlugin().getParticleService().spawn(Particle.SMOKE, burst, 30, 1.2, 1.2, 1.2, 0.05);
+            world.playSound(burst, Sound.ENTITY_GENERIC_EXPLODE, 1.0f, 1.2f);
+            world.playSound(burst, Sound.ENTITY_BLAZE_HURT, 1.0f, 0.8f);
+        });
         
         // Damage and burn entities in blast radius
         double radius = 3.0 + (accuracy * 1.5); // 3-4.5 block radius
         double damage = 5.0 * accuracy;
         int fireTicks = (int)(100 * accuracy); // 2.5-5 seconds of burn
         
-        for (Entity entity : world.getNearbyEntities(loc, radius, radius, radius)) {
+        for (Entity entity : barManager.getPlugin().getEntityIndex().inBox(loc, radius, radius, radius, caster)) {
             if (entity instanceof LivingEntity le && entity != caster) {
                 // Distance falloff
                 double distance = le.getLocation().distance(loc);
@@ -189,7 +184,7 @@ public class Spells {
 
     // ==================== WARD ====================
     // Defensive shield spell
-    public static SpellResult castWard(Player player, double timing, double windowStart, double windowEnd) {
+    public static SpellResult castWard(Player player, double timing, double windowStart, double windowEnd, Mcroguelite plugin) {
         // MUST be within window or backfire
         if (!isWithinWindow(timing, windowStart, windowEnd)) {
             player.addPotionEffect(new PotionEffect(PotionEffectType.WEAKNESS, 100, 1));
@@ -211,10 +206,7 @@ public class Spells {
         Location center = player.getLocation().add(0, 1, 0);
         double radius = 3.0 + (accuracy * 2);
 
-        for (LivingEntity le : world.getLivingEntities()) {
-            if (le.equals(player)) continue;
-            if (le.getLocation().distanceSquared(center) > radius * radius) continue;
-
+        for (LivingEntity le : plugin.getEntityIndex().inRadius(center, radius, player)) {
             Vector knock = le.getLocation().toVector().subtract(center.toVector()).normalize().multiply(0.5 * accuracy);
             knock.setY(0.3);
             le.setVelocity(knock);
@@ -228,7 +220,7 @@ public class Spells {
 
     // Legacy
     public static void castWard(Player player, double charge, ChargeBarManager barManager) {
-        castWard(player, charge, 0.1, 0.6);
+        castWard(player, charge, 0.1, 0.6, barManager.getPlugin());
     }
 
     // ==================== UNLOCK ====================
@@ -250,14 +242,10 @@ public class Spells {
         Player target = null;
         double bestDist = Double.MAX_VALUE;
 
-        for (Player other : world.getPlayers()) {
-            if (other.equals(player)) continue;
+        // Players within 10 blocks and 60 degrees of where the caster is looking
+        for (LivingEntity candidate : barManager.getPlugin().getEntityIndex().inCone(player.getLocation(), dir, 10, 0.5, player)) {
+            if (!(candidate instanceof Player other)) continue;
             double dist = other.getLocation().distance(player.getLocation());
-            if (dist > 10) continue;
-
-            Vector to = other.getLocation().toVector()
-                    .subtract(player.getLocation().toVector()).normalize();
-            if (dir.dot(to) < 0.5) continue;
 
             if (dist < bestDist) {
                 bestDist = dist;
@@ -287,7 +275,7 @@ public class Spells {
 
     // ==================== SNAP ====================
     // Teleport spell
-    public static SpellResult castSnap(Player player, double timing, double windowStart, double windowEnd) {
+    public static SpellResult castSnap(Player player, double timing, double windowStart, double windowEnd, Mcroguelite plugin) {
         // MUST be within window or backfire
         if (!isWithinWindow(timing, windowStart, windowEnd)) {
             player.addPotionEffect(new PotionEffect(PotionEffectType.BLINDNESS, 100, 1));
@@ -300,59 +288,103 @@ public class Spells {
         double accuracy = calculateAccuracy(timing, windowStart, windowEnd);
 
         double maxRange = 20 + (accuracy * 15); // 20-35 blocks based on accuracy
-        Location targetLoc = player.getLocation().clone();
-        
-        // Raycast to where cursor is pointing
-        var rayResult = player.rayTraceBlocks(maxRange);
-        
-        if (rayResult != null && rayResult.getHitBlock() != null) {
-            // Hit a block - teleport to the face we hit
-            Location hitLoc = rayResult.getHitPosition().toLocation(player.getWorld());
-            org.bukkit.block.BlockFace face = rayResult.getHitBlockFace();
-            
-            // Offset based on hit face to land on top/beside block
-            if (face != null) {
-                hitLoc.add(face.getModX() * 0.6, face.getModY() * 0.6, face.getModZ() * 0.6);
+        Location eye = player.getEyeLocation();
+        Vector direction = eye.getDirection();
+
+        // Landing spot is found off-thread; the teleport happens next tick
+        CastPlanner planner = plugin.getCastPlanner();
+        BlockView view = planner.captureRay(eye, direction, maxRange, 1);
+        planner.submit(view, player, v -> findSnapLanding(v, eye, direction, maxRange), targetLoc -> {
+            if (!player.isValid()) return;
+            // The spot was filled in (or unloaded) since the plan
+            if (!isSnapLandingClear(targetLoc)) {
+                player.playSound(player.getLocation(), Sound.BLOCK_FIRE_EXTINGUISH, 0.6f, 1.5f);
+                player.sendMessage("§7§oThere's nowhere to land.");
+                return;
             }
-            
-            // Find safe spot (2 blocks of air for player)
-            Location check = hitLoc.clone();
-            Block footBlock = check.getBlock();
-            Block headBlock = check.clone().add(0, 1, 0).getBlock();
-            
-            // If landing in solid, try to find nearby air
-            if (!footBlock.getType().isAir() || !headBlock.getType().isAir()) {
-                // Try going up
-                for (int i = 0; i < 3; i++) {
-                    check.add(0, 1, 0);
-                    if (check.getBlock().getType().isAir() && check.clone().add(0, 1, 0).getBlock().getType().isAir()) {
-                        hitLoc = check;
-                        break;
-                    }
+
+            // Keep original orientation
+            targetLoc.setYaw(player.getLocation().getYaw());
+            targetLoc.setPitch(player.getLocation().getPitch());
+
+            // Effects at origin
+            player.getWorld().spawnParticle(Particle.PORTAL, player.getLocation().add(0, 1, 0), 40, 0.3, 0.5, 0.3, 0.5);
+            player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.2f);
+
+            // Teleport - async, as region-threaded servers refuse synchronous teleports
+            player.teleportAsync(targetLoc).thenAccept(success -> {
+                if (!success) return;
+                // Effects at destination
+                player.getWorld().spawnParticle(Particle.PORTAL, player.getLocation().add(0, 1, 0), 40, 0.3, 0.5, 0.3, 0.5);
+            });
+        });
+
+        return accuracy > 0.7 ? SpellResult.PERFECT : SpellResult.SUCCESS;
+    }
+
+    /**
+     * Off-thread: where Snap lands - the face the cursor points at, nudged up into 2 blocks of air.
+     * Null if the ray ran out of captured terrain and there's no safe spot short of it.
+     */
+    private static Location findSnapLanding(BlockView view, Location eye, Vector direction, double maxRange) {
+        // Raycast to where cursor is pointing
+        BlockView.Hit hit = view.rayTrace(eye.toVector(), direction, maxRange);
+        if (hit == null) {
+            // No block hit - teleport to max range in that direction
+            return eye.clone().add(direction.clone().multiply(maxRange));
+        }
+
+        Location hitLoc = hit.position().toLocation(view.getWorld());
+        if (hit.unknown()) {
+            // Terrain past here wasn't checked - land a block short of it, only if that's clear
+            hitLoc.subtract(direction.clone().normalize());
+            int x = hitLoc.getBlockX();
+            int y = hitLoc.getBlockY();
+            int z = hitLoc.getBlockZ();
+            for (int i = 0; i <= 3; i++) {
+                if (view.isAir(x, y + i, z) && view.isAir(x, y + i + 1, z)) {
+                    return hitLoc.add(0, i, 0);
                 }
             }
-            
-            targetLoc = hitLoc;
-        } else {
-            // No block hit - teleport to max range in that direction
-            targetLoc = player.getEyeLocation().add(player.getLocation().getDirection().multiply(maxRange));
+            return null;
         }
-        
-        // Keep original orientation
-        targetLoc.setYaw(player.getLocation().getYaw());
-        targetLoc.setPitch(player.getLocation().getPitch());
 
-        // Effects at origin
-        player.getWorld().spawnParticle(Particle.PORTAL, player.getLocation().add(0, 1, 0), 40, 0.3, 0.5, 0.3, 0.5);
-        player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 1.0f, 1.2f);
+        // Hit a block - teleport to the face we hit
+        org.bukkit.block.BlockFace face = hit.face();
 
-        // Teleport
-        player.teleport(targetLoc);
+        // Offset based on hit face to land on top/beside block
+        if (face != null) {
+            hitLoc.add(face.getModX() * 0.6, face.getModY() * 0.6, face.getModZ() * 0.6);
+        }
 
-        // Effects at destination
-        player.getWorld().spawnParticle(Particle.PORTAL, player.getLocation().add(0, 1, 0), 40, 0.3, 0.5, 0.3, 0.5);
+        // Find safe spot (2 blocks of air for player)
+        int x = hitLoc.getBlockX();
+        int y = hitLoc.getBlockY();
+        int z = hitLoc.getBlockZ();
+
+        // If landing in solid, try to find nearby air
+        if (!view.isAir(x, y, z) || !view.isAir(x, y + 1, z)) {
+            // Try going up
+            for (int i = 1; i <= 3; i++) {
+                if (view.isAir(x, y + i, z) && view.isAir(x, y + i + 1, z)) {
+                    return hitLoc.add(0, i, 0);
+                }
+            }
+        }
+        return hitLoc;
+    }
 
-        return accuracy > 0.7 ? SpellResult.PERFECT : SpellResult.SUCCESS;
+    /**
+     * Apply-time re-check of a Snap landing: the chunk is still loaded and the
+     * feet and head blocks are still passable. Blocks owned by another region
+     * can't be read here, so those keep the planned result.
+     */
+    private static boolean isSnapLandingClear(Location target) {
+        World world = target.getWorld();
+        if (!world.isChunkLoaded(target.getBlockX() >> 4, target.getBlockZ() >> 4)) return false;
+        if (!org.bukkit.Bukkit.isOwnedByCurrentRegion(target)) return true;
+        Block feet = target.getBlock();
+        return feet.isPassable() && feet.getRelative(org.bukkit.block.BlockFace.UP).isPassable();
     }
 
     // ==================== FIMBULVETR ====================
@@ -381,37 +413,36 @@ public class Spells {
         final double finalAccuracy = accuracy;
         final ChargeBarManager finalChargeBarManager = chargeBarManager;
 
-        new BukkitRunnable() {
-            Location current = loc.clone();
-            int ticks = 0;
+        // 41 steps of 1.5 blocks (~2 seconds)
+        plugin.getProjectileEngine().launch(new Projectile("fimbulvetr", player, loc, direction, 1.5, 1.0, 61.5) {
+            @Override
+            protected boolean stopsAt(Material type) {
+                return !type.isAir();
+            }
 
             @Override
-            public void run() {
-                if (ticks++ > 40) {
-                    explodeIceWithBlocks(current, player, finalAccuracy, finalChargeBarManager, plugin);
-                    cancel();
-                    return;
+            protected void onFlight(Location current) {
+                if (plugin.getTickBudget().allowCosmetic()) {
+                    plugin.getParticleService().spawn(Particle.SNOWFLAKE, current, 5, 0.1, 0.1, 0.1, 0.02);
                 }
+            }
 
-                current.add(direction.clone().multiply(1.5));
-                current.getWorld().spawnParticle(Particle.SNOWFLAKE, current, 5, 0.1, 0.1, 0.1, 0.02);
+            // Entity, block or max range - it shatters either way
+            @Override
+            protected void onHitEntity(LivingEntity target, Location current) {
+                explodeIceWithBlocks(current, player, finalAccuracy, finalChargeBarManager, plugin);
+            }
 
-                // Check for entity hit
-                for (Entity entity : current.getWorld().getNearbyEntities(current, 1, 1, 1)) {
-                    if (entity instanceof LivingEntity && entity != player) {
-                        explodeIceWithBlocks(current, player, finalAccuracy, finalChargeBarManager, plugin);
-                        cancel();
-                        return;
-                    }
-                }
+            @Override
+            protected void onHitBlock(Location current) {
+                explodeIceWithBlocks(current, player, finalAccuracy, finalChargeBarManager, plugin);
+            }
 
-                // Check for block hit
-                if (!current.getBlock().getType().isAir()) {
-                    explodeIceWithBlocks(current, player, finalAccuracy, finalChargeBarManager, plugin);
-                    cancel();
-                }
+            @Override
+            protected void onExpire(Location current) {
+                explodeIceWithBlocks(current, player, finalAccuracy, finalChargeBarManager, plugin);
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        });
 
         // Ice casting sound alongside lightning
         player.playSound(player.getLocation(), Sound.ENTITY_EVOKER_CAST_SPELL, 1.0f, 1.5f);
@@ -422,12 +453,15 @@ public class Spells {
     private static void explodeIceWithBlocks(Location loc, Player caster, double accuracy, ChargeBarManager chargeBarManager, Mcroguelite plugin) {
         World world = loc.getWorld();
         
-        // Particles
-        world.spawnParticle(Particle.SNOWFLAKE, loc, 50, 2, 2, 2, 0.1);
-        world.playSound(loc, Sound.BLOCK_GLASS_BREAK, 1.0f, 0.8f);
+        // Particles - cosmetic, may be deferred under load
+        Location burst = loc.clone();
+        plugin.getTickBudget().cosmetic(() -> {
+            plugin.getParticleService().spawn(Particle.SNOWFLAKE, burst, 50, 2, 2, 2, 0.1);
+            world.playSound(burst, Sound.BLOCK_GLASS_BREAK, 1.0f, 0.8f);
+        });
 
         // Damage nearby entities
-        Collection<Entity> nearby = world.getNearbyEntities(loc, 4, 4, 4);
+        Collection<LivingEntity> nearby = plugin.getEntityIndex().inBox(loc, 4, 4, 4, caster);
         for (Entity entity : nearby) {
             if (entity instanceof LivingEntity && entity != caster) {
                 LivingEntity target = (LivingEntity) entity;
@@ -443,41 +477,61 @@ public class Spells {
             }
         }
         
-        // Place 7x5x7 ice structure (7 wide, 5 up, 7 deep)
+        // Place 7x5x7 ice structure (7 wide, 5 up, 7 deep) - the air scan runs off-thread
         Location center = loc.getBlock().getLocation();
-        java.util.List<Block> placedIce = new java.util.ArrayList<>();
-        
+        CastPlanner planner = plugin.getCastPlanner();
+        BlockView view = planner.captureAround(center, 3);
+        planner.submit(view, center, v -> findIceSpots(v, center), spots -> placeIce(world, center, spots, plugin));
+    }
+
+    /** Off-thread: air blocks in the 7x5x7 box above [center], as packed x,y,z triples. */
+    private static int[] findIceSpots(BlockView view, Location center) {
+        int cx = center.getBlockX();
+        int cy = center.getBlockY();
+        int cz = center.getBlockZ();
+        int[] spots = new int[7 * 5 * 7 * 3];
+        int count = 0;
         for (int x = -3; x <= 3; x++) {
             for (int y = 0; y <= 4; y++) {
                 for (int z = -3; z <= 3; z++) {
-                    Block block = center.clone().add(x, y, z).getBlock();
                     // Only replace air blocks to avoid griefing
-                    if (block.getType().isAir()) {
-                        block.setType(org.bukkit.Material.ICE);
-                        placedIce.add(block);
+                    if (view.isAir(cx + x, cy + y, cz + z)) {
+                        spots[count++] = cx + x;
+                        spots[count++] = cy + y;
+                        spots[count++] = cz + z;
                     }
                 }
             }
         }
+        return count == 0 ? null : java.util.Arrays.copyOf(spots, count);
+    }
+
+    private static void placeIce(World world, Location center, int[] spots, Mcroguelite plugin) {
+        java.util.List<Block> placedIce = new java.util.ArrayList<>(spots.length / 3);
+        for (int i = 0; i < spots.length; i += 3) {
+            Block block = world.getBlockAt(spots[i], spots[i + 1], spots[i + 2]);
+            // Still air? Someone may have built there since the scan
+            if (block.getType().isAir()) {
+                block.setType(org.bukkit.Material.ICE);
+                placedIce.add(block);
+            }
+        }
         
         // Schedule ice removal after 3 seconds
         if (!placedIce.isEmpty()) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    for (Block block : placedIce) {
-                        if (block.getType() == org.bukkit.Material.ICE) {
-                            block.setType(org.bukkit.Material.AIR);
-                            block.getWorld().spawnParticle(Particle.BLOCK, 
-                                    block.getLocation().add(0.5, 0.5, 0.5), 
-                                    8, 0.3, 0.3, 0.3, 0.05,
-                                    org.bukkit.Material.ICE.createBlockData());
-                        }
+            plugin.getTimingWheel().scheduleAt(180L, center, world.getUID(), () -> { // 9 seconds = 180 ticks
+                for (Block block : placedIce) {
+                    if (block.getType() == org.bukkit.Material.ICE) {
+                        block.setType(org.bukkit.Material.AIR);
+                        block.getWorld().spawnParticle(Particle.BLOCK, 
+                                block.getLocation().add(0.5, 0.5, 0.5), 
+                                8, 0.3, 0.3, 0.3, 0.05,
+                                org.bukkit.Material.ICE.createBlockData());
                     }
-                    // Play ice break sound once for all blocks
-                    world.playSound(center, Sound.BLOCK_GLASS_BREAK, 1.0f, 1.2f);
                 }
-            }.runTaskLater(plugin, 180L); // 9 seconds = 180 ticks
+                // Play ice break sound once for all blocks
+                world.playSound(center, Sound.BLOCK_GLASS_BREAK, 1.0f, 1.2f);
+            });
         }
     }
 
@@ -518,7 +572,7 @@ public class Spells {
 
         // Heal nearby allies if good timing
         if (accuracy > 0.6) {
-            for (Entity entity : player.getNearbyEntities(5, 5, 5)) {
+            for (Entity entity : plugin.getEntityIndex().inBox(player.getLocation(), 5, 5, 5, player)) {
                 if (entity instanceof Player ally && ally != player) {
                     ally.addPotionEffect(new PotionEffect(PotionEffectType.REGENERATION, duration / 2, 0));
                     ally.getWorld().spawnParticle(Particle.HEART, ally.getLocation().add(0, 2, 0), 5, 0.3, 0.3, 0.3, 0);
@@ -535,7 +589,7 @@ public class Spells {
 
     // ==================== SNARVINDUR (Wind Knockback) ====================
     // Wind knockback spell with snap/clap sound
-    public static SpellResult castSnarvindur(Player player, double timing, double windowStart, double windowEnd) {
+    public static SpellResult castSnarvindur(Player player, double timing, double windowStart, double windowEnd, Mcroguelite plugin) {
         // MUST be within window or backfire
         if (!isWithinWindow(timing, windowStart, windowEnd)) {
             Vector knockback = player.getLocation().getDirection().multiply(-3.0);
@@ -553,7 +607,7 @@ public class Spells {
         double radius = 5 + (accuracy * 5); // 5-10 block radius (increased)
         double force = 1.8 + (accuracy * 2.2); // Much stronger knockback (1.8-4.0)
 
-        for (Entity entity : player.getNearbyEntities(radius, radius, radius)) {
+        for (Entity entity : plugin.getEntityIndex().inBox(center, radius, radius, radius, player)) {
             if (entity instanceof LivingEntity le) {
                 Vector direction = entity.getLocation().toVector().subtract(center.toVector()).normalize();
                 direction.setY(0.6); // Higher vertical component
@@ -591,89 +645,116 @@ public class Spells {
 
         double accuracy = calculateAccuracy(timing, windowStart, windowEnd);
 
-        // Raycast to find target location
-        Location trapLoc;
-        var result = player.rayTraceBlocks(15.0);
-        if (result != null && result.getHitBlock() != null) {
-            trapLoc = result.getHitBlock().getLocation().add(0.5, 1, 0.5);
-        } else {
-            trapLoc = player.getLocation().add(player.getLocation().getDirection().multiply(5));
-        }
+        // Raycast to find target location - off-thread, the trap is set next tick
+        Location eye = player.getEyeLocation();
+        Location feet = player.getLocation();
+        Vector direction = eye.getDirection();
+        CastPlanner planner = plugin.getCastPlanner();
+        BlockView view = planner.captureRay(eye, direction, 15.0, 1);
+        planner.submit(view, player, v -> {
+            Location top = aimedBlockTop(v, eye, direction, 15.0);
+            return top != null ? top.add(0.5, 0, 0.5) : feet.clone().add(direction.clone().multiply(5));
+        }, trapLoc -> {
+            if (player.isValid()) setTenebrisTrap(player, trapLoc, accuracy, chargeBarManager, plugin);
+        });
 
+        player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 0.8f, 0.6f);
+        player.playSound(player.getLocation(), Sound.ENTITY_WARDEN_AMBIENT, 0.5f, 1.5f);
+        return accuracy > 0.7 ? SpellResult.PERFECT : SpellResult.SUCCESS;
+    }
+
+    private static void setTenebrisTrap(Player player, Location trapLoc, double accuracy, ChargeBarManager chargeBarManager, Mcroguelite plugin) {
         final Location finalTrapLoc = trapLoc;
         final double finalAccuracy = accuracy;
         final ChargeBarManager finalChargeBarManager = chargeBarManager;
 
         // Visual indicator - purple particles
-        player.getWorld().spawnParticle(Particle.DUST, trapLoc, 20, 0.5, 0.1, 0.5, 0,
+        plugin.getParticleService().spawn(Particle.DUST, trapLoc, 20, 0.5, 0.1, 0.5, 0,
                 new Particle.DustOptions(org.bukkit.Color.fromRGB(128, 0, 255), 1.2f));
 
-        // Trap duration task - waits up to 1 minute for trigger
-        new BukkitRunnable() {
-            int ticks = 0;
-            boolean triggered = false;
+        // Trap duration task - arms after a second, then waits up to 1 minute for trigger.
+        // Triggering is watched by the registry; this only draws the trap and expires it.
+        plugin.getEffectTicker().start(new SpellEffect("tenebris-trap", player.getUniqueId()) {
+            final long expiresAt = plugin.getTickClock().after(20 + 1200); // 60 second trap duration (1 minute)
+            TriggerRegistry.Trigger trigger;
+
+            @Override
+            protected Location anchorLocation() {
+                return finalTrapLoc;
+            }
 
             @Override
-            public void run() {
-                if (ticks++ > 1200 || triggered) { // 60 second trap duration (1 minute)
+            protected void tick() {
+                if (plugin.getTickClock().hasPassed(expiresAt)) {
                     cancel();
                     return;
                 }
+                if (trigger == null) {
+                    trigger = plugin.getTriggerRegistry().add(finalTrapLoc, 1.5, 2, 1.5, player, le -> {
+                        cancel();
+                        springTenebrisTrap(le, player, finalTrapLoc, finalAccuracy, finalChargeBarManager, plugin);
+                    });
+                }
 
                 // Ambient purple particles
-                if (ticks % 15 == 0) {
-                    finalTrapLoc.getWorld().spawnParticle(Particle.DUST, finalTrapLoc, 5, 0.4, 0.2, 0.4, 0,
+                if (plugin.getTickBudget().allowCosmetic()) {
+                    plugin.getParticleService().spawn(Particle.DUST, finalTrapLoc, 5, 0.4, 0.2, 0.4, 0,
                             new Particle.DustOptions(org.bukkit.Color.fromRGB(128, 0, 255), 1.0f));
-                    finalTrapLoc.getWorld().spawnParticle(Particle.WITCH, finalTrapLoc, 2, 0.3, 0.1, 0.3, 0.01);
+                    plugin.getParticleService().spawn(Particle.WITCH, finalTrapLoc, 2, 0.3, 0.1, 0.3, 0.01);
                 }
+            }
 
-                // Check for entities
-                for (Entity entity : finalTrapLoc.getWorld().getNearbyEntities(finalTrapLoc, 1.5, 2, 1.5)) {
-                    if (entity instanceof LivingEntity le && entity != player) {
-                        // Apply Tenebris mark - lasts 1 minute
-                        int markDuration = (int)(1200 * finalAccuracy); // Up to 60 seconds
-                        
-                        // Purple glow via team color
-                        applyPurpleGlow(le, markDuration, plugin);
-                        
-                        // Weakness makes them take more damage (via reduced resistance)
-                        // Note: There's no "vulnerability" in vanilla, so we use a custom approach
-                        le.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, markDuration, 0));
-                        
-                        // Initial damage
-                        le.damage(3.0 * finalAccuracy, player);
-                        
-                        // Apply damage vulnerability via attribute modifier
-                        applyDamageVulnerability(le, markDuration, finalAccuracy, plugin);
-
-                        // Trigger effects
-                        finalTrapLoc.getWorld().spawnParticle(Particle.DUST, finalTrapLoc, 40, 1.5, 1.5, 1.5, 0,
-                                new Particle.DustOptions(org.bukkit.Color.fromRGB(128, 0, 255), 1.5f));
-                        finalTrapLoc.getWorld().spawnParticle(Particle.WITCH, finalTrapLoc, 30, 1, 1, 1, 0.1);
-                        finalTrapLoc.getWorld().playSound(finalTrapLoc, Sound.ENTITY_WARDEN_HEARTBEAT, 1.0f, 0.8f);
-                        finalTrapLoc.getWorld().playSound(finalTrapLoc, Sound.BLOCK_RESPAWN_ANCHOR_DEPLETE, 0.8f, 0.5f);
-                        
-                        if (le instanceof Player target) {
-                            // Unlock mana (curse spell)
-                            finalChargeBarManager.unlockMana(target);
-                            target.sendMessage(net.kyori.adventure.text.Component.text("You've been marked by Tenebris! Your mana awakens...", 
-                                    net.kyori.adventure.text.format.NamedTextColor.DARK_PURPLE));
-                        }
-                        
-                        triggered = true;
-                        cancel();
-                        return;
-                    }
+            @Override
+            public void cancel() {
+                super.cancel();
+                // Expired, triggered or stopped on quit - stop watching either way
+                if (trigger != null) {
+                    trigger.remove();
                 }
             }
-        }.runTaskTimer(plugin, 20L, 1L);
+        }, 20L, 15);
+    }
 
-        player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 0.8f, 0.6f);
-        player.playSound(player.getLocation(), Sound.ENTITY_WARDEN_AMBIENT, 0.5f, 1.5f);
-        return accuracy > 0.7 ? SpellResult.PERFECT : SpellResult.SUCCESS;
+    private static void springTenebrisTrap(LivingEntity le, Player player, Location trapLoc, double accuracy,
+                                           ChargeBarManager chargeBarManager, Mcroguelite plugin) {
+        // Apply Tenebris mark - lasts 1 minute
+        int markDuration = (int)(1200 * accuracy); // Up to 60 seconds
+        
+        // Purple glow via team color
+        applyPurpleGlow(le, markDuration, plugin);
+        
+        // Weakness makes them take more damage (via reduced resistance)
+        // Note: There's no "vulnerability" in vanilla, so we use a custom approach
+        le.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, markDuration, 0));
+        
+        // Initial damage
+        le.damage(3.0 * accuracy, player);
+        
+        // Apply damage vulnerability via attribute modifier
+        applyDamageVulnerability(le, markDuration, accuracy, plugin);
+
+        // Trigger effects
+        plugin.getParticleService().spawn(Particle.DUST, trapLoc, 40, 1.5, 1.5, 1.5, 0,
+                new Particle.DustOptions(org.bukkit.Color.fromRGB(128, 0, 255), 1.5f));
+        plugin.getParticleService().spawn(Particle.WITCH, trapLoc, 30, 1, 1, 1, 0.1);
+        trapLoc.getWorld().playSound(trapLoc, Sound.ENTITY_WARDEN_HEARTBEAT, 1.0f, 0.8f);
+        trapLoc.getWorld().playSound(trapLoc, Sound.BLOCK_RESPAWN_ANCHOR_DEPLETE, 0.8f, 0.5f);
+        
+        if (le instanceof Player target) {
+            // Unlock mana (curse spell)
+            chargeBarManager.unlockMana(target);
+            target.sendMessage(net.kyori.adventure.text.Component.text("You've been marked by Tenebris! Your mana awakens...", 
+                    net.kyori.adventure.text.format.NamedTextColor.DARK_PURPLE));
+        }
     }
     
     private static void applyPurpleGlow(LivingEntity target, int duration, Mcroguelite plugin) {
+        // Apply glowing
+        target.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, duration, 0, false, false));
+        
+        // Folia has no main scoreboard, so the glow keeps its default colour there
+        if (plugin.getTaskScheduler().isRegionized()) return;
+        
         // Create or get the purple team for glow effect
         org.bukkit.scoreboard.Scoreboard scoreboard = org.bukkit.Bukkit.getScoreboardManager().getMainScoreboard();
         org.bukkit.scoreboard.Team purpleTeam = scoreboard.getTeam("tenebris_mark");
@@ -689,17 +770,9 @@ public class Spells {
         String entryName = target instanceof Player p ? p.getName() : target.getUniqueId().toString();
         purpleTeam.addEntry(entryName);
         
-        // Apply glowing
-        target.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, duration, 0, false, false));
-        
         // Schedule removal from team
         final org.bukkit.scoreboard.Team finalTeam = purpleTeam;
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                finalTeam.removeEntry(entryName);
-            }
-        }.runTaskLater(plugin, duration);
+        plugin.getTimingWheel().scheduleFor(duration, target, () -> finalTeam.removeEntry(entryName));
     }
     
     private static void applyDamageVulnerability(LivingEntity target, int duration, double accuracy, Mcroguelite plugin) {
@@ -710,26 +783,31 @@ public class Spells {
         // use a scheduled task to apply periodic "vulnerability" damage ticks
         
         // Purple particle trail while marked
-        new BukkitRunnable() {
+        plugin.getEffectTicker().start(new SpellEffect("tenebris-mark", target.getUniqueId()) {
             int ticks = 0;
             
             @Override
-            public void run() {
+            protected Entity anchorEntity() {
+                return target;
+            }
+
+            @Override
+            protected void tick() {
                 if (ticks >= duration || target.isDead() || !target.isValid()) {
                     cancel();
                     return;
                 }
                 
                 // Subtle purple particles around marked target
-                if (ticks % 10 == 0) {
-                    target.getWorld().spawnParticle(Particle.DUST, target.getLocation().add(0, 1, 0), 
+                if (ticks % 10 == 0 && plugin.getTickBudget().allowCosmetic()) {
+                    plugin.getParticleService().spawn(Particle.DUST, target.getLocation().add(0, 1, 0), 
                             3, 0.3, 0.5, 0.3, 0,
                             new Particle.DustOptions(org.bukkit.Color.fromRGB(128, 0, 255), 0.8f));
                 }
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        });
         
         // Store the vulnerability on the entity using PDC (Persistent Data Container)
         // This can be checked in a damage listener to multiply damage taken
@@ -738,14 +816,11 @@ public class Spells {
         pdc.set(vulnKey, org.bukkit.persistence.PersistentDataType.DOUBLE, 1.0 + (0.5 * accuracy)); // 25-50% more damage
         
         // Schedule removal
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (target.isValid()) {
-                    target.getPersistentDataContainer().remove(vulnKey);
-                }
+        plugin.getTimingWheel().scheduleFor(duration, target, () -> {
+            if (target.isValid()) {
+                target.getPersistentDataContainer().remove(vulnKey);
             }
-        }.runTaskLater(plugin, duration);
+        });
     }
 
     // ==================== HELPERS ====================
@@ -785,23 +860,19 @@ public class Spells {
         player.getWorld().playSound(player.getLocation(), Sound.ENTITY_GENERIC_EXPLODE, 1f, 0.7f);
     }
 
-    private static LivingEntity findHitEntity(Player caster, Location point, double radius) {
-        double r2 = radius * radius;
-        LivingEntity best = null;
-        for (LivingEntity le : point.getWorld().getLivingEntities()) {
-            if (le.equals(caster)) continue;
-            double dist2 = le.getLocation().distanceSquared(point);
-            if (dist2 <= r2) {
-                best = le;
-                r2 = dist2;
-            }
-        }
-        return best;
+    /**
+     * Off-thread: the spot on top of the block the caster is looking at,
+     * within [range], or null if the ray hits nothing.
+     */
+    private static Location aimedBlockTop(BlockView view, Location eye, Vector direction, double range) {
+        BlockView.Hit hit = view.rayTrace(eye.toVector(), direction, range);
+        if (hit == null || hit.unknown()) return null;
+        return new Location(view.getWorld(), hit.x(), hit.y() + 1, hit.z());
     }
 
     // ==================== PERCUTIENS (Lightning) ====================
     // Lightning strike spell - wiki mentions lightning attacks
-    public static SpellResult castPercutiens(Player player, double timing, double windowStart, double windowEnd) {
+    public static SpellResult castPercutiens(Player player, double timing, double windowStart, double windowEnd, Mcroguelite plugin) {
         // MUST be within window or backfire
         if (!isWithinWindow(timing, windowStart, windowEnd)) {
             // Backfire - strike yourself!
@@ -815,31 +886,35 @@ public class Spells {
 
         double accuracy = calculateAccuracy(timing, windowStart, windowEnd);
 
-        // Raycast to find target location
-        Location targetLoc;
-        var result = player.rayTraceBlocks(20.0);
-        if (result != null && result.getHitBlock() != null) {
-            targetLoc = result.getHitBlock().getLocation().add(0.5, 1, 0.5);
-        } else {
-            targetLoc = player.getLocation().add(player.getLocation().getDirection().multiply(15));
-        }
-
         // Clap sound effect when casting
         player.getWorld().playSound(player.getLocation(), Sound.ENTITY_PLAYER_ATTACK_STRONG, 2.0f, 0.5f);
         player.getWorld().playSound(player.getLocation(), Sound.ENTITY_GENERIC_EXPLODE, 0.5f, 1.5f);
-        
-        // Strike lightning
-        player.getWorld().strikeLightningEffect(targetLoc);
 
-        // Damage nearby entities
-        double radius = 3 + (accuracy * 2);
-        double damage = 8 * accuracy;
-        for (Entity entity : targetLoc.getWorld().getNearbyEntities(targetLoc, radius, radius, radius)) {
-            if (entity instanceof LivingEntity le && entity != player) {
-                le.damage(damage, player);
-                le.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, (int)(40 * accuracy), 1));
+        // Raycast to find target location - off-thread, the bolt lands next tick
+        Location eye = player.getEyeLocation();
+        Location feet = player.getLocation();
+        Vector direction = eye.getDirection();
+        CastPlanner planner = plugin.getCastPlanner();
+        BlockView view = planner.captureRay(eye, direction, 20.0, 1);
+        planner.submit(view, player, v -> {
+            Location top = aimedBlockTop(v, eye, direction, 20.0);
+            return top != null ? top.add(0.5, 0, 0.5) : feet.clone().add(direction.clone().multiply(15));
+        }, targetLoc -> {
+            if (!player.isValid()) return;
+
+            // Strike lightning
+            targetLoc.getWorld().strikeLightningEffect(targetLoc);
+
+            // Damage nearby entities
+            double radius = 3 + (accuracy * 2);
+            double damage = 8 * accuracy;
+            for (Entity entity : plugin.getEntityIndex().inBox(targetLoc, radius, radius, radius, player)) {
+                if (entity instanceof LivingEntity le && entity != player) {
+                    le.damage(damage, player);
+                    le.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, (int)(40 * accuracy), 1));
+                }
             }
-        }
+        });
 
         player.playSound(player.getLocation(), Sound.ENTITY_LIGHTNING_BOLT_THUNDER, 1.0f, 1.2f);
         return accuracy > 0.7 ? SpellResult.PERFECT : SpellResult.SUCCESS;
@@ -896,16 +971,16 @@ public class Spells {
         final double drainPerTick = 0.008; // 0.8% per tick - slower than Gelidus
         
         // Start channeled invisibility
-        new BukkitRunnable() {
+        plugin.getEffectTicker().start(new SpellEffect("veil", player.getUniqueId()) {
             int ticks = 0;
             
             @Override
-            public void run() {
+            protected void tick() {
                 // Check if player still has mana
                 double currentMana = chargeBarManager.getChargeProgress(player);
                 if (currentMana <= 0.01) {
                     player.removePotionEffect(PotionEffectType.INVISIBILITY);
-                    player.getWorld().spawnParticle(Particle.WITCH, player.getLocation().add(0, 1, 0), 20, 0.3, 0.5, 0.3, 0.05);
+                    plugin.getParticleService().spawn(Particle.WITCH, player.getLocation().add(0, 1, 0), 20, 0.3, 0.5, 0.3, 0.05);
                     player.playSound(player.getLocation(), Sound.ENTITY_ILLUSIONER_MIRROR_MOVE, 1.0f, 0.8f);
                     cancel();
                     return;
@@ -926,13 +1001,13 @@ public class Spells {
                 }
                 
                 // Subtle particles occasionally
-                if (ticks % 40 == 0) {
-                    player.getWorld().spawnParticle(Particle.WITCH, player.getLocation().add(0, 1, 0), 3, 0.2, 0.3, 0.2, 0.01);
+                if (ticks % 40 == 0 && plugin.getTickBudget().allowCosmetic()) {
+                    plugin.getParticleService().spawn(Particle.WITCH, player.getLocation().add(0, 1, 0), 3, 0.2, 0.3, 0.2, 0.01);
                 }
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        });
 
         // Initial effect
         player.addPotionEffect(new PotionEffect(PotionEffectType.INVISIBILITY, 40, 0, true, false, false));
@@ -968,11 +1043,11 @@ public class Spells {
         final double drainPerTick = 0.015; // 1.5% mana per tick (drains fast)
         
         // Start channeled frost breath
-        new BukkitRunnable() {
+        plugin.getEffectTicker().start(new SpellEffect("gelidus", player.getUniqueId()) {
             int ticks = 0;
             
             @Override
-            public void run() {
+            protected void tick() {
                 // Check if player still has mana
                 double currentMana = chargeBarManager.getChargeProgress(player);
                 if (currentMana <= 0.01) {
@@ -997,52 +1072,54 @@ public class Spells {
                 
                 // Spawn frost cloud/breath in a cone in front of player
                 double range = 6.0 + (2.0 * finalAccuracy); // 6-8 block range based on accuracy
+                // Frost visuals are skipped for the whole tick when over budget; damage still applies
+                boolean showFrost = plugin.getTickBudget().allowCosmetic();
                 
-                for (double d = 1.5; d < range; d += 0.8) {
-                    double spread = d * 0.4; // Cone spread
-                    Location center = eyeLoc.clone().add(dir.clone().multiply(d));
-                    
-                    // Large snow/frost particles
-                    world.spawnParticle(Particle.SNOWFLAKE, center, 8, spread, spread * 0.5, spread, 0.05);
-                    world.spawnParticle(Particle.CLOUD, center, 3, spread * 0.5, spread * 0.3, spread * 0.5, 0.02);
-                    
-                    // White dust for dense frost effect
-                    world.spawnParticle(Particle.DUST, center, 5, spread, spread * 0.5, spread, 0,
-                            new Particle.DustOptions(org.bukkit.Color.fromRGB(220, 240, 255), 2.0f));
+                if (showFrost) {
+                    for (double d = 1.5; d < range; d += 0.8) {
+                        double spread = d * 0.4; // Cone spread
+                        Location center = eyeLoc.clone().add(dir.clone().multiply(d));
+                        
+                        // Large snow/frost particles
+                        plugin.getParticleService().spawn(Particle.SNOWFLAKE, center, 8, spread, spread * 0.5, spread, 0.05);
+                        plugin.getParticleService().spawn(Particle.CLOUD, center, 3, spread * 0.5, spread * 0.3, spread * 0.5, 0.02);
+                        
+                        // White dust for dense frost effect
+                        plugin.getParticleService().spawn(Particle.DUST, center, 5, spread, spread * 0.5, spread, 0,
+                                new Particle.DustOptions(org.bukkit.Color.fromRGB(220, 240, 255), 2.0f));
+                    }
+                }
+                
+                // Damage entities in cone - one query for the whole breath, each target once
+                for (LivingEntity le : plugin.getEntityIndex().inCone(eyeLoc, dir, range, 0.4, 0.8, player)) {
+                    // Frostbite damage - use freezeTicks mechanic
+                    le.setFreezeTicks(Math.min(le.getFreezeTicks() + 30, 200)); // Stack freeze ticks
                     
-                    // Damage entities in cone
-                    for (Entity entity : world.getNearbyEntities(center, spread + 0.8, spread * 0.6 + 0.8, spread + 0.8)) {
-                        if (entity instanceof LivingEntity le && entity != player) {
-                            // Frostbite damage - use freezeTicks mechanic
-                            le.setFreezeTicks(Math.min(le.getFreezeTicks() + 30, 200)); // Stack freeze ticks
-                            
-                            // Deal freeze damage every few ticks (not every tick to prevent spam)
-                            if (ticks % 4 == 0) {
-                                // Minecraft freeze damage
-                                le.damage(1.5 * finalAccuracy, player);
-                                le.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, 40, 1, false, false));
-                                
-                                // Unlock mana on player hit (curse spell) - only once per cast
-                                if (le instanceof Player hitPlayer && !chargeBarManager.hasManaUnlocked(hitPlayer)) {
-                                    chargeBarManager.unlockMana(hitPlayer);
-                                    hitPlayer.sendMessage("§b§oThe frost awakens something within you...");
-                                }
-                            }
+                    // Deal freeze damage every few ticks (not every tick to prevent spam)
+                    if (ticks % 4 == 0) {
+                        // Minecraft freeze damage
+                        le.damage(1.5 * finalAccuracy, player);
+                        le.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, 40, 1, false, false));
+                        
+                        // Unlock mana on player hit (curse spell) - only once per cast
+                        if (le instanceof Player hitPlayer && !chargeBarManager.hasManaUnlocked(hitPlayer)) {
+                            chargeBarManager.unlockMana(hitPlayer);
+                            hitPlayer.sendMessage("§b§oThe frost awakens something within you...");
                         }
                     }
                 }
                 
                 // Sound effects (not every tick)
-                if (ticks % 3 == 0) {
+                if (ticks % 3 == 0 && showFrost) {
                     world.playSound(eyeLoc, Sound.BLOCK_POWDER_SNOW_STEP, 0.6f, 1.2f);
                 }
-                if (ticks % 8 == 0) {
+                if (ticks % 8 == 0 && showFrost) {
                     world.playSound(eyeLoc, Sound.ENTITY_PLAYER_HURT_FREEZE, 0.4f, 1.5f);
                 }
                 
                 ticks++;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        });
 
         player.playSound(player.getLocation(), Sound.ENTITY_SNOW_GOLEM_AMBIENT, 1.0f, 0.8f);
         
@@ -1158,72 +1235,64 @@ public class Spells {
         final double finalAccuracy = accuracy;
 
         // Blue bolt projectile
-        new BukkitRunnable() {
-            Location current = loc.clone();
-            int ticks = 0;
-
+        plugin.getProjectileEngine().launch(new Projectile("armis", player, loc, direction, 1.5, 1.2, 61.5) { // 2 second max flight
             @Override
-            public void run() {
-                if (ticks++ > 40) { // 2 second max flight
-                    cancel();
-                    return;
-                }
+            protected boolean stopsAt(Material type) {
+                return !type.isAir();
+            }
 
-                current.add(direction.clone().multiply(1.5));
-                
+            @Override
+            protected void onFlight(Location current) {
                 // Blue particles
-                world.spawnParticle(Particle.DUST, current, 10, 0.15, 0.15, 0.15, 0,
-                        new Particle.DustOptions(org.bukkit.Color.fromRGB(50, 150, 255), 1.2f));
-                world.spawnParticle(Particle.ENCHANT, current, 5, 0.1, 0.1, 0.1, 0.02);
+                if (plugin.getTickBudget().allowCosmetic()) {
+                    plugin.getParticleService().spawn(Particle.DUST, current, 10, 0.15, 0.15, 0.15, 0,
+                            new Particle.DustOptions(org.bukkit.Color.fromRGB(50, 150, 255), 1.2f));
+                    plugin.getParticleService().spawn(Particle.ENCHANT, current, 5, 0.1, 0.1, 0.1, 0.02);
+                }
+            }
 
-                // Check for entity hit
-                for (Entity entity : current.getWorld().getNearbyEntities(current, 1.2, 1.2, 1.2)) {
-                    if (entity instanceof LivingEntity le && entity != player) {
-                        // Disarm effect
-                        if (le instanceof Player target) {
-                            org.bukkit.inventory.ItemStack heldItem = target.getInventory().getItemInMainHand();
-                            if (heldItem.getType() != org.bukkit.Material.AIR) {
-                                // Drop item with limited launch distance (max 3 blocks)
-                                Location dropLoc = target.getLocation().add(0, 1, 0);
-                                org.bukkit.entity.Item droppedItem = world.dropItem(dropLoc, heldItem.clone());
-                                
-                                // Set velocity to launch away from caster but limited to ~3 blocks
-                                Vector launchDir = target.getLocation().toVector().subtract(player.getLocation().toVector()).normalize();
-                                launchDir.setY(0.3); // Slight upward arc
-                                launchDir.multiply(0.4); // Limited velocity for ~3 block max distance
-                                droppedItem.setVelocity(launchDir);
-                                
-                                // Prevent pickup for 5 seconds (100 ticks)
-                                droppedItem.setPickupDelay(100);
-                                // Also set owner to prevent others from picking it up easily
-                                droppedItem.setOwner(target.getUniqueId());
-                                
-                                target.getInventory().setItemInMainHand(null);
-                                target.sendMessage(net.kyori.adventure.text.Component.text("You've been disarmed!", net.kyori.adventure.text.format.NamedTextColor.RED));
-                            }
-                        } else {
-                            // For mobs, deal some damage and knockback
-                            le.damage(3.0 * finalAccuracy, player);
-                        }
+            @Override
+            protected void onHitEntity(LivingEntity le, Location current) {
+                // Disarm effect
+                if (le instanceof Player target) {
+                    org.bukkit.inventory.ItemStack heldItem = target.getInventory().getItemInMainHand();
+                    if (heldItem.getType() != org.bukkit.Material.AIR) {
+                        // Drop item with limited launch distance (max 3 blocks)
+                        Location dropLoc = target.getLocation().add(0, 1, 0);
+                        org.bukkit.entity.Item droppedItem = world.dropItem(dropLoc, heldItem.clone());
                         
-                        // Hit effects
-                        world.spawnParticle(Particle.DUST, current, 30, 0.5, 0.5, 0.5, 0,
-                                new Particle.DustOptions(org.bukkit.Color.fromRGB(100, 180, 255), 1.5f));
-                        world.playSound(current, Sound.ENTITY_ITEM_BREAK, 1.0f, 1.5f);
-                        world.playSound(current, Sound.BLOCK_AMETHYST_BLOCK_BREAK, 1.0f, 1.2f);
-                        cancel();
-                        return;
+                        // Set velocity to launch away from caster but limited to ~3 blocks
+                        Vector launchDir = target.getLocation().toVector().subtract(player.getLocation().toVector()).normalize();
+                        launchDir.setY(0.3); // Slight upward arc
+                        launchDir.multiply(0.4); // Limited velocity for ~3 block max distance
+                        droppedItem.setVelocity(launchDir);
+                        
+                        // Prevent pickup for 5 seconds (100 ticks)
+                        droppedItem.setPickupDelay(100);
+                        // Also set owner to prevent others from picking it up easily
+                        droppedItem.setOwner(target.getUniqueId());
+                        
+                        target.getInventory().setItemInMainHand(null);
+                        target.sendMessage(net.kyori.adventure.text.Component.text("You've been disarmed!", net.kyori.adventure.text.format.NamedTextColor.RED));
                     }
+                } else {
+                    // For mobs, deal some damage and knockback
+                    le.damage(3.0 * finalAccuracy, player);
                 }
+                
+                // Hit effects
+                plugin.getParticleService().spawn(Particle.DUST, current, 30, 0.5, 0.5, 0.5, 0,
+                        new Particle.DustOptions(org.bukkit.Color.fromRGB(100, 180, 255), 1.5f));
+                world.playSound(current, Sound.ENTITY_ITEM_BREAK, 1.0f, 1.5f);
+                world.playSound(current, Sound.BLOCK_AMETHYST_BLOCK_BREAK, 1.0f, 1.2f);
+            }
 
-                // Check for block hit
-                if (!current.getBlock().getType().isAir()) {
-                    world.spawnParticle(Particle.DUST, current, 15, 0.3, 0.3, 0.3, 0,
-                            new Particle.DustOptions(org.bukkit.Color.fromRGB(100, 180, 255), 1.0f));
-                    cancel();
-                }
+            @Override
+            protected void onHitBlock(Location current) {
+                plugin.getParticleService().spawn(Particle.DUST, current, 15, 0.3, 0.3, 0.3, 0,
+                        new Particle.DustOptions(org.bukkit.Color.fromRGB(100, 180, 255), 1.0f));
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        });
 
         player.playSound(player.getLocation(), Sound.ENTITY_EVOKER_CAST_SPELL, 1.0f, 1.5f);
         player.playSound(player.getLocation(), Sound.BLOCK_AMETHYST_BLOCK_CHIME, 1.0f, 1.0f);
@@ -1246,60 +1315,85 @@ public class Spells {
 
         double accuracy = calculateAccuracy(timing, windowStart, windowEnd);
 
+        // Target and pillar bases are found off-thread; pillars start rising next tick
+        Location eye = player.getEyeLocation();
+        Location feet = player.getLocation();
+        Vector direction = eye.getDirection();
+        CastPlanner planner = plugin.getCastPlanner();
+        // Pillars stand up to 3.5 blocks from the target
+        BlockView view = planner.captureRay(eye, direction, 20.0, 4);
+        planner.submit(view, player, v -> planViribus(v, eye, feet, direction, accuracy), pillarLocations -> {
+            if (player.isValid()) raiseViribusPillars(player, pillarLocations, accuracy, plugin);
+        });
+
+        player.playSound(player.getLocation(), Sound.BLOCK_PISTON_EXTEND, 1.0f, 0.6f);
+        
+        return accuracy > 0.7 ? SpellResult.PERFECT : SpellResult.SUCCESS;
+    }
+
+    /** Off-thread: the target spot first, then one base per pillar in a ring around it. */
+    private static java.util.List<Location> planViribus(BlockView view, Location eye, Location feet, Vector direction, double accuracy) {
         // Raycast to find target location
-        Location targetLoc;
-        var result = player.rayTraceBlocks(20.0);
-        if (result != null && result.getHitBlock() != null) {
-            targetLoc = result.getHitBlock().getLocation().add(0, 1, 0);
-        } else {
-            targetLoc = player.getLocation().add(player.getLocation().getDirection().multiply(10));
+        Location targetLoc = aimedBlockTop(view, eye, direction, 20.0);
+        if (targetLoc == null) {
+            targetLoc = feet.clone().add(direction.clone().multiply(10));
         }
 
-        World world = player.getWorld();
-        final Location finalTargetLoc = targetLoc;
-        final double finalAccuracy = accuracy;
         int pillarCount = (int)(3 + accuracy * 3); // 3-6 pillars based on accuracy
         
         // Spawn pillars in a pattern around target
-        java.util.List<Location> pillarLocations = new java.util.ArrayList<>();
+        java.util.List<Location> locations = new java.util.ArrayList<>(pillarCount + 1);
+        locations.add(targetLoc);
         for (int i = 0; i < pillarCount; i++) {
             double angle = (2 * Math.PI / pillarCount) * i;
             double radius = 2.0 + (Math.random() * 1.5);
             double x = Math.cos(angle) * radius;
             double z = Math.sin(angle) * radius;
-            Location pillarLoc = finalTargetLoc.clone().add(x, 0, z);
+            Location pillarLoc = targetLoc.clone().add(x, 0, z);
             
             // Find ground level
-            while (!pillarLoc.getBlock().getType().isSolid() && pillarLoc.getY() > world.getMinHeight()) {
+            int bx = pillarLoc.getBlockX();
+            int bz = pillarLoc.getBlockZ();
+            while (!view.isSolid(bx, pillarLoc.getBlockY(), bz) && pillarLoc.getY() > view.getMinHeight()) {
                 pillarLoc.subtract(0, 1, 0);
             }
             pillarLoc.add(0, 1, 0);
-            pillarLocations.add(pillarLoc);
+            locations.add(pillarLoc);
         }
+        return locations;
+    }
+
+    private static void raiseViribusPillars(Player player, java.util.List<Location> planned, double accuracy, Mcroguelite plugin) {
+        World world = player.getWorld();
+        final Location finalTargetLoc = planned.get(0);
+        final double finalAccuracy = accuracy;
+        java.util.List<Location> pillarLocations = planned.subList(1, planned.size());
 
         // Spawn pillars with delay for dramatic effect
-        new BukkitRunnable() {
+        plugin.getEffectTicker().start(new SpellEffect("viribus", player.getUniqueId()) {
             int index = 0;
             java.util.List<Block> allPillarBlocks = new java.util.ArrayList<>();
             
             @Override
-            public void run() {
+            protected Location anchorLocation() {
+                return finalTargetLoc;
+            }
+
+            @Override
+            protected void tick() {
                 if (index >= pillarLocations.size()) {
                     // Schedule removal of all pillars
-                    new BukkitRunnable() {
-                        @Override
-                        public void run() {
-                            for (Block block : allPillarBlocks) {
-                                if (block.getType() == org.bukkit.Material.STONE || 
-                                    block.getType() == org.bukkit.Material.COBBLESTONE) {
-                                    block.setType(org.bukkit.Material.AIR);
-                                    world.spawnParticle(Particle.BLOCK, block.getLocation().add(0.5, 0.5, 0.5),
-                                            10, 0.3, 0.3, 0.3, 0.05, org.bukkit.Material.STONE.createBlockData());
-                                }
+                    plugin.getTimingWheel().scheduleAt(80L, finalTargetLoc, world.getUID(), () -> { // 4 seconds
+                        for (Block block : allPillarBlocks) {
+                            if (block.getType() == org.bukkit.Material.STONE || 
+                                block.getType() == org.bukkit.Material.COBBLESTONE) {
+                                block.setType(org.bukkit.Material.AIR);
+                                plugin.getParticleService().spawn(Particle.BLOCK, block.getLocation().add(0.5, 0.5, 0.5),
+                                        10, 0.3, 0.3, 0.3, 0.05, org.bukkit.Material.STONE.createBlockData());
                             }
-                            world.playSound(finalTargetLoc, Sound.BLOCK_STONE_BREAK, 1.0f, 0.8f);
                         }
-                    }.runTaskLater(plugin, 80L); // 4 seconds
+                        world.playSound(finalTargetLoc, Sound.BLOCK_STONE_BREAK, 1.0f, 0.8f);
+                    });
                     cancel();
                     return;
                 }
@@ -1319,7 +1413,7 @@ public class Spells {
                 }
                 
                 // Check for entities in pillar path and apply effects
-                for (Entity entity : world.getNearbyEntities(pillarLoc, 1, height, 1)) {
+                for (Entity entity : plugin.getEntityIndex().inBox(pillarLoc, 1, height, 1, player)) {
                     if (entity instanceof LivingEntity le && entity != player) {
                         // Launch upward with strong knockback
                         Vector launch = new Vector(
@@ -1337,17 +1431,14 @@ public class Spells {
                 
                 // Sound and particles
                 world.playSound(pillarLoc, Sound.BLOCK_STONE_PLACE, 1.2f, 0.7f);
-                world.spawnParticle(Particle.BLOCK, pillarLoc.clone().add(0.5, height/2.0, 0.5), 
+                plugin.getParticleService().spawn(Particle.BLOCK, pillarLoc.clone().add(0.5, height/2.0, 0.5), 
                         20, 0.3, height/2.0, 0.3, 0.1, org.bukkit.Material.STONE.createBlockData());
                 
                 index++;
             }
-        }.runTaskTimer(plugin, 0L, 3L); // Spawn each pillar 3 ticks apart
+        }, 0L, 3); // Spawn each pillar 3 ticks apart
 
-        player.playSound(player.getLocation(), Sound.BLOCK_PISTON_EXTEND, 1.0f, 0.6f);
-        world.playSound(targetLoc, Sound.ENTITY_IRON_GOLEM_ATTACK, 1.0f, 0.8f);
-        
-        return accuracy > 0.7 ? SpellResult.PERFECT : SpellResult.SUCCESS;
+        world.playSound(finalTargetLoc, Sound.ENTITY_IRON_GOLEM_ATTACK, 1.0f, 0.8f);
     }
 
     // ==================== TRICKSTUS (Control Confusion) ====================
@@ -1366,12 +1457,20 @@ public class Spells {
 
         double accuracy = calculateAccuracy(timing, windowStart, windowEnd);
 
-        // Raycast to find target
-        var result = player.rayTraceEntities(15);
-        if (result == null || !(result.getHitEntity() instanceof LivingEntity target)) {
+        // Raycast to find target - through the entity index, stopping at the first block in the way
+        Location eye = player.getEyeLocation();
+        Vector aim = eye.getDirection();
+        double reach = 15;
+        var blocked = player.getWorld().rayTraceBlocks(eye, aim, reach, org.bukkit.FluidCollisionMode.NEVER, true);
+        if (blocked != null) {
+            reach = blocked.getHitPosition().distance(eye.toVector());
+        }
+        var result = plugin.getEntityIndex().rayCast(eye, aim, reach, 0.0, player);
+        if (result == null) {
             player.sendMessage(net.kyori.adventure.text.Component.text("No target found!", net.kyori.adventure.text.format.NamedTextColor.RED));
             return SpellResult.FIZZLE;
         }
+        LivingEntity target = result.entity();
 
         World world = player.getWorld();
         final double finalAccuracy = accuracy;
@@ -1388,11 +1487,11 @@ public class Spells {
             targetPlayer.sendMessage(net.kyori.adventure.text.Component.text("Your mind is scrambled... but something awakens!", net.kyori.adventure.text.format.NamedTextColor.LIGHT_PURPLE));
             
             // Periodic random velocity adjustments
-            new BukkitRunnable() {
+            plugin.getEffectTicker().start(new SpellEffect("trickstus", targetPlayer.getUniqueId()) {
                 int ticks = 0;
                 
                 @Override
-                public void run() {
+                protected void tick() {
                     if (ticks >= duration || !targetPlayer.isOnline() || targetPlayer.isDead()) {
                         cancel();
                         return;
@@ -1409,14 +1508,14 @@ public class Spells {
                     }
                     
                     // Visual indicator
-                    if (ticks % 15 == 0) {
-                        world.spawnParticle(Particle.WITCH, targetPlayer.getLocation().add(0, 2, 0), 
+                    if (ticks % 15 == 0 && plugin.getTickBudget().allowCosmetic()) {
+                        plugin.getParticleService().spawn(Particle.WITCH, targetPlayer.getLocation().add(0, 2, 0), 
                                 5, 0.3, 0.2, 0.3, 0.02);
                     }
                     
                     ticks++;
                 }
-            }.runTaskTimer(plugin, 0L, 1L);
+            });
         }
 
         // Cast effects
@@ -2,6 +2,10 @@ package io.github.shortvincentman.mcroguelite.climbing;
 
 import io.github.shortvincentman.mcroguelite.ChargeBarManager;
 import io.github.shortvincentman.mcroguelite.Mcroguelite;
+import io.github.shortvincentman.mcroguelite.profile.PlayerProfile;
+import io.github.shortvincentman.mcroguelite.profile.ProfileCache;
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickContext;
+import io.github.shortvincentman.mcroguelite.scheduler.PlayerTickPipeline;
 import io.github.shortvincentman.mcroguelite.util.ManaColorUtil;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -16,10 +20,10 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
 import org.bukkit.inventory.EquipmentSlot;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Mana-based climbing system.
@@ -30,10 +34,10 @@ import java.util.*;
 public class ClimbingSystem implements Listener {
     private final Mcroguelite plugin;
     private final ChargeBarManager chargeBarManager;
+    private final ProfileCache profiles;
 
-    private final Map<UUID, ClimbState> climbingPlayers = new HashMap<>();
-    private final Map<UUID, Integer> climbLevel = new HashMap<>();
-    private final Map<UUID, Integer> climbUseCount = new HashMap<>(); // Track number of climbs
+    // Climb level and use count live in the player's profile
+    private final Map<UUID, ClimbState> climbingPlayers = new ConcurrentHashMap<>();
 
     // Mana drain per tick (base rate, reduced by level)
     private static final double BASE_MANA_DRAIN = 0.008; // 0.8% per tick base (slower drain)
@@ -66,49 +70,36 @@ public class ClimbingSystem implements Listener {
 
     private static class ClimbState {
         BlockFace wallFace;
-        long startTime;
         boolean isResting;
 
         ClimbState(BlockFace wallFace) {
             this.wallFace = wallFace;
-            this.startTime = System.currentTimeMillis();
             this.isResting = false;
         }
     }
 
-    public ClimbingSystem(Mcroguelite plugin, ChargeBarManager chargeBarManager) {
+    public ClimbingSystem(Mcroguelite plugin, ChargeBarManager chargeBarManager, ProfileCache profiles,
+                          PlayerTickPipeline pipeline) {
         this.plugin = plugin;
         this.chargeBarManager = chargeBarManager;
-        startClimbingTask();
+        this.profiles = profiles;
+        pipeline.register("climbing", 1, this::processClimbingPlayer);
     }
 
-    private void startClimbingTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    UUID uuid = player.getUniqueId();
-
-                    if (climbingPlayers.containsKey(uuid)) {
-                        processClimbingPlayer(player, uuid);
-                    }
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 1L);
-    }
-
-    private void processClimbingPlayer(Player player, UUID uuid) {
-        ClimbState state = climbingPlayers.get(uuid);
+    private void processClimbingPlayer(PlayerTickContext ctx) {
+        ClimbState state = climbingPlayers.get(ctx.playerId());
+        if (state == null) return;
+        Player player = ctx.player();
         
         // Check if still against wall
-        if (!isAgainstWall(player, state.wallFace)) {
+        if (!isAgainstWall(ctx.location(), state.wallFace)) {
             stopClimbing(player, false);
             return;
         }
         
         // Calculate mana drain based on climb level
-        int level = climbLevel.getOrDefault(uuid, 1);
-        int fullCharges = chargeBarManager.getFullChargeCount(player);
+        int level = ctx.profile().getClimbLevel();
+        int fullCharges = ctx.profile().getFullChargeCount();
         
         // Drain reduction: 4% per climb level, capped at 60%
         double levelReduction = Math.min(MAX_DRAIN_REDUCTION, level * LEVEL_DRAIN_REDUCTION);
@@ -120,7 +111,7 @@ public class ClimbingSystem implements Listener {
         }
         
         // Try to consume mana
-        double currentMana = chargeBarManager.getChargeProgress(player);
+        double currentMana = ctx.mana();
         if (currentMana < drain) {
             // Out of mana - fall!
             stopClimbing(player, true);
@@ -128,19 +119,20 @@ public class ClimbingSystem implements Listener {
         }
         
         chargeBarManager.consumeCharge(player, drain);
+        ctx.invalidateMana();
         
         // Handle climbing movement in the task (more reliable than move event)
-        handleClimbMovement(player, state, level);
+        handleClimbMovement(player, ctx.location(), state, level);
         
         // Spawn colored particles while climbing (not resting)
         if (!state.isResting && player.getTicksLived() % 5 == 0) {
-            spawnClimbingParticles(player, state, fullCharges);
+            spawnClimbingParticles(player, ctx.location(), state, fullCharges);
         }
     }
 
-    private void spawnClimbingParticles(Player player, ClimbState state, int fullCharges) {
-        Block wallBlock = player.getLocation().getBlock().getRelative(state.wallFace);
-        Location particleLoc = player.getLocation().add(0, 0.5, 0);
+    private void spawnClimbingParticles(Player player, Location location, ClimbState state, int fullCharges) {
+        Block wallBlock = location.getBlock().getRelative(state.wallFace);
+        Location particleLoc = location.clone().add(0, 0.5, 0);
         
         // Block particles from wall
         if (wallBlock.getType().isSolid()) {
@@ -237,7 +229,7 @@ public class ClimbingSystem implements Listener {
 
         climbingPlayers.put(uuid, new ClimbState(wallFace));
 
-        int level = climbLevel.getOrDefault(uuid, 1);
+        int level = profiles.get(uuid).getClimbLevel();
         double drainReduction = Math.min(MAX_DRAIN_REDUCTION, level * LEVEL_DRAIN_REDUCTION) * 100;
         
         player.playSound(player.getLocation(), Sound.BLOCK_LADDER_STEP, 0.5f, 1.0f);
@@ -265,15 +257,15 @@ public class ClimbingSystem implements Listener {
     }
 
     private void incrementClimbCount(Player player) {
-        UUID uuid = player.getUniqueId();
-        int count = climbUseCount.getOrDefault(uuid, 0) + 1;
-        climbUseCount.put(uuid, count);
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        int count = profile.getClimbUseCount() + 1;
+        profile.setClimbUseCount(count);
         
-        int currentLevel = climbLevel.getOrDefault(uuid, 1);
+        int currentLevel = profile.getClimbLevel();
         int newLevel = calculateLevelFromCount(count);
         
         if (newLevel > currentLevel) {
-            climbLevel.put(uuid, newLevel);
+            profile.setClimbLevel(newLevel);
             // Level up tracked silently - check /mcroguelite stats
         }
     }
@@ -287,7 +279,7 @@ public class ClimbingSystem implements Listener {
         return 1;
     }
 
-    private void handleClimbMovement(Player player, ClimbState state, int level) {
+    private void handleClimbMovement(Player player, Location location, ClimbState state, int level) {
         if (state.isResting) {
             // Hold position - negate gravity
             Vector velocity = player.getVelocity();
@@ -300,7 +292,7 @@ public class ClimbingSystem implements Listener {
         double climbSpeed = CLIMB_SPEED_BASE + (level * CLIMB_SPEED_PER_LEVEL);
 
         // Look up = climb up, look down = climb down
-        float pitch = player.getLocation().getPitch();
+        float pitch = location.getPitch();
         double verticalSpeed = 0;
         if (pitch < -15) {
             verticalSpeed = climbSpeed;
@@ -320,7 +312,7 @@ public class ClimbingSystem implements Listener {
 
         // Climbing sound
         if (Math.abs(verticalSpeed) > 0.05 && player.getTicksLived() % 12 == 0) {
-            player.playSound(player.getLocation(), Sound.BLOCK_LADDER_STEP, 0.3f, 1.0f);
+            player.playSound(location, Sound.BLOCK_LADDER_STEP, 0.3f, 1.0f);
         }
     }
 
@@ -351,8 +343,8 @@ public class ClimbingSystem implements Listener {
         return null;
     }
 
-    private boolean isAgainstWall(Player player, BlockFace wallFace) {
-        Block wallBlock = player.getLocation().getBlock().getRelative(wallFace);
+    private boolean isAgainstWall(Location location, BlockFace wallFace) {
+        Block wallBlock = location.getBlock().getRelative(wallFace);
         return wallBlock.getType().isSolid();
     }
 
@@ -368,16 +360,17 @@ public class ClimbingSystem implements Listener {
 
     // Public API
     public int getClimbLevel(Player player) {
-        return climbLevel.getOrDefault(player.getUniqueId(), 1);
+        return profiles.get(player.getUniqueId()).getClimbLevel();
     }
 
     public int getClimbUseCount(Player player) {
-        return climbUseCount.getOrDefault(player.getUniqueId(), 0);
+        return profiles.get(player.getUniqueId()).getClimbUseCount();
     }
     
     public int getClimbsToNextLevel(Player player) {
-        int count = climbUseCount.getOrDefault(player.getUniqueId(), 0);
-        int level = climbLevel.getOrDefault(player.getUniqueId(), 1);
+        PlayerProfile profile = profiles.get(player.getUniqueId());
+        int count = profile.getClimbUseCount();
+        int level = profile.getClimbLevel();
         if (level >= LEVEL_THRESHOLDS.length) {
             return 0; // Max level
         }
@@ -0,0 +1,63 @@
+package io.github.shortvincentman.mcroguelite.config;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.Locale;
+
+/**
+ * Immutable, typed snapshot of config.yml.
+ * Parsed once on enable and again on /mcroguelite reload; the plugin swaps the
+ * whole snapshot in a single volatile write, so hot paths read plain fields
+ * and never walk the YAML tree.
+ */
+public record PluginSettings(
+        // Mana
+        boolean autoUnlock,
+        double chargeRate,
+        double drainRate,
+        // Training
+        boolean trainingEnabled,
+        // Rendering
+        double manaBarThreshold,
+        double castBarThreshold,
+        // Combat
+        double maxDamageMultiplier,
+        // Storage
+        String storageType,
+        long autosaveIntervalTicks,
+        int offlineProfileCacheSize,
+        long shutdownFlushMs,
+        // Performance
+        long tickBudgetNanos,
+        double yieldMspt,
+        // Particles
+        double particleViewDistance,
+        int particleViewerBudget,
+        int particleChunkBudget
+) {
+
+    public static PluginSettings from(FileConfiguration config) {
+        return new PluginSettings(
+                config.getBoolean("mana.auto-unlock", false),
+                nonNegative(config.getDouble("mana.charge-rate", 0.02)),
+                nonNegative(config.getDouble("mana.drain-rate", 0.03)),
+                config.getBoolean("training.enabled", true),
+                nonNegative(config.getDouble("rendering.mana-bar-threshold", 0.02)),
+                nonNegative(config.getDouble("rendering.cast-bar-threshold", 0.1)),
+                Math.max(1.0, config.getDouble("combat.max-damage-multiplier", 1.5)),
+                config.getString("storage.type", "yaml").toLowerCase(Locale.ROOT),
+                Math.max(0L, (long) (config.getDouble("storage.autosave-interval-seconds", 60.0) * 20)),
+                Math.max(0, config.getInt("storage.offline-cache-size", 500)),
+                Math.max(0L, (long) (config.getDouble("storage.shutdown-flush-seconds", 10.0) * 1000)),
+                Math.max(0L, (long) (config.getDouble("performance.tick-budget-ms", 4.0) * 1_000_000)),
+                nonNegative(config.getDouble("performance.yield-mspt", 45.0)),
+                nonNegative(config.getDouble("particles.view-distance", 32.0)),
+                Math.max(0, config.getInt("particles.viewer-budget", 600)),
+                Math.max(0, config.getInt("particles.chunk-budget", 400))
+        );
+    }
+
+    private static double nonNegative(double value) {
+        return Math.max(0.0, value);
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.shortvincentman.mcroguelite.effect;
+
+import io.github.shortvincentman.mcroguelite.scheduler.TaskScheduler;
+import io.github.shortvincentman.mcroguelite.scheduler.TickBudget;
+import io.github.shortvincentman.mcroguelite.scheduler.TickClock;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs every live spell effect from one repeating task.
+ * Replaces a BukkitRunnable per projectile/channel/trap: the scheduler holds a
+ * single task no matter how many spells are in flight, every live effect can
+ * be listed, and all of a player's effects can be stopped at once.
+ * Time spent is accounted per effect type.
+ *
+ * On Folia the ticker still decides what is due from one global task, but each
+ * due step is handed to the region that owns the effect's anchor (see
+ * SpellEffect.anchorLocation/anchorEntity), falling back to the owner's
+ * region. An effect never has two steps in flight at once.
+ */
+public class EffectTicker implements Runnable, Listener {
+
+    /** Running totals for one effect type. */
+    public static class Stats {
+        int active;
+        long runs;
+        long totalNanos;
+        long maxNanos;
+
+        public int getActive() {
+            return active;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+
+    private final TaskScheduler scheduler;
+    private final TickClock clock;
+    private final TickBudget budget;
+    private final Logger logger;
+
+    // Guarded by itself; only held briefly outside the ticker pass (quit, introspection)
+    private final List<SpellEffect> effects = new ArrayList<>();
+    // New effects join on the next pass; guarded by itself (spells start from any region)
+    private final List<SpellEffect> incoming = new ArrayList<>();
+    // Guarded by itself
+    private final Map<String, Stats> stats = new TreeMap<>();
+    private TaskScheduler.Task task;
+
+    public EffectTicker(TaskScheduler scheduler, TickClock clock, TickBudget budget, Logger logger) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.budget = budget;
+        this.logger = logger;
+    }
+
+    public void start() {
+        if (task != null) return;
+        task = scheduler.runTimer(this, 1L, 1L);
+    }
+
+    public void stop() {
+        cancelAll();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /** Run [effect] every tick, starting next tick. */
+    public <T extends SpellEffect> T start(T effect) {
+        return start(effect, 0L, 1);
+    }
+
+    /** Run [effect] every [period] ticks after waiting [delay] ticks. */
+    public <T extends SpellEffect> T start(T effect, long delay, int period) {
+        effect.nextRunTick = clock.now() + Math.max(0L, delay);
+        effect.period = Math.max(1, period);
+        synchronized (stats) {
+            stats.computeIfAbsent(effect.getName(), k -> new Stats()).active++;
+        }
+        synchronized (incoming) {
+            incoming.add(effect);
+        }
+        return effect;
+    }
+
+    @Override
+    public void run() {
+        long now = clock.now();
+        long passStart = System.nanoTime();
+        synchronized (effects) {
+            synchronized (incoming) {
+                if (!incoming.isEmpty()) {
+                    effects.addAll(incoming);
+                    incoming.clear();
+                }
+            }
+            tickAll(now);
+        }
+        budget.charge(System.nanoTime() - passStart);
+    }
+
+    private void tickAll(long now) {
+        int write = 0;
+        for (int read = 0; read < effects.size(); read++) {
+            SpellEffect effect = effects.get(read);
+            if (!effect.isCancelled() && !effect.inFlight && now >= effect.nextRunTick) {
+                effect.nextRunTick = now + effect.period;
+                if (scheduler.isRegionized()) {
+                    dispatch(effect);
+                } else {
+                    runOne(effect);
+                }
+            }
+            if (effect.isCancelled()) {
+                synchronized (stats) {
+                    stats.get(effect.getName()).active--;
+                }
+            } else {
+                // Compact live effects towards the front
+                effects.set(write++, effect);
+            }
+        }
+        effects.subList(write, effects.size()).clear();
+    }
+
+    /** Folia: run one step on the region that owns the effect. */
+    private void dispatch(SpellEffect effect) {
+        Runnable step = () -> {
+            try {
+                if (!effect.isCancelled()) runOne(effect);
+            } finally {
+                effect.inFlight = false;
+            }
+        };
+        Runnable retired = () -> {
+            effect.cancel();
+            effect.inFlight = false;
+        };
+
+        effect.inFlight = true;
+        Entity anchorEntity = effect.anchorEntity();
+        if (anchorEntity != null) {
+            scheduler.runFor(anchorEntity, step, retired);
+            return;
+        }
+        Location anchorLocation = effect.anchorLocation();
+        if (anchorLocation != null) {
+            scheduler.runAt(anchorLocation, step);
+            return;
+        }
+        Player owner = Bukkit.getPlayer(effect.getOwner());
+        if (owner != null) {
+            scheduler.runFor(owner, step, retired);
+        } else {
+            // Nothing left to run it against
+            retired.run();
+        }
+    }
+
+    private void runOne(SpellEffect effect) {
+        long start = System.nanoTime();
+        try {
+            effect.tick();
+        } catch (RuntimeException e) {
+            // One broken effect must not take the others down with it
+            logger.log(Level.WARNING, "Spell effect '" + effect.getName() + "' failed and was stopped", e);
+            effect.cancel();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        synchronized (stats) {
+            Stats s = stats.get(effect.getName());
+            s.runs++;
+            s.totalNanos += elapsed;
+            if (elapsed > s.maxNanos) s.maxNanos = elapsed;
+        }
+    }
+
+    // -------- Bulk Control --------
+
+    /**
+     * Stop every effect owned by [owner]. They are dropped from the list on
+     * the next pass. Returns how many were stopped.
+     */
+    public int cancelAll(UUID owner) {
+        synchronized (effects) {
+            synchronized (incoming) {
+                return forceStop(effects, owner) + forceStop(incoming, owner);
+            }
+        }
+    }
+
+    /** Stop every effect. */
+    public void cancelAll() {
+        synchronized (effects) {
+            synchronized (incoming) {
+                forceStop(effects, null);
+                forceStop(incoming, null);
+                effects.clear();
+                incoming.clear();
+            }
+        }
+        synchronized (stats) {
+            for (Stats s : stats.values()) {
+                s.active = 0;
+            }
+        }
+    }
+
+    private int forceStop(List<SpellEffect> list, UUID owner) {
+        int stopped = 0;
+        for (SpellEffect effect : list) {
+            if (effect.isCancelled()) continue;
+            if (owner != null && !owner.equals(effect.getOwner())) continue;
+            effect.cancel();
+            try {
+                effect.onForcedStop();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Spell effect '" + effect.getName() + "' failed while stopping", e);
+            }
+            stopped++;
+        }
+        return stopped;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        cancelAll(event.getPlayer().getUniqueId());
+    }
+
+    // -------- Introspection --------
+
+    /** Every live effect, in start order. */
+    public List<SpellEffect> getActive() {
+        synchronized (effects) {
+            synchronized (incoming) {
+                List<SpellEffect> live = new ArrayList<>(effects.size() + incoming.size());
+                for (SpellEffect effect : effects) {
+                    if (!effect.isCancelled()) live.add(effect);
+                }
+                for (SpellEffect effect : incoming) {
+                    if (!effect.isCancelled()) live.add(effect);
+                }
+                return live;
+            }
+        }
+    }
+
+    /** Per-type totals since the plugin enabled, keyed by effect name. A snapshot. */
+    public Map<String, Stats> getStats() {
+        synchronized (stats) {
+            Map<String, Stats> copy = new TreeMap<>();
+            for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+                Stats s = entry.getValue();
+                Stats snapshot = new Stats();
+                snapshot.active = s.active;
+                snapshot.runs = s.runs;
+                snapshot.totalNanos = s.totalNanos;
+                snapshot.maxNanos = s.maxNanos;
+                copy.put(entry.getKey(), snapshot);
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+    }
+}
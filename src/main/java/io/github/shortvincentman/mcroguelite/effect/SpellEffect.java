@@ -0,0 +1,71 @@
+package io.github.shortvincentman.mcroguelite.effect;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+
+import java.util.UUID;
+
+/**
+ * A live spell effect driven by the EffectTicker - a projectile in flight,
+ * a channel, a trap waiting to trigger.
+ * Subclasses put one step of work in tick() and call cancel() when done;
+ * the ticker drops cancelled effects before the next tick.
+ */
+public abstract class SpellEffect {
+
+    private final String name;
+    private final UUID owner;
+
+    // Scheduling, managed by the ticker (server ticks)
+    long nextRunTick;
+    int period = 1;
+    // Folia: a step has been handed to a region and hasn't finished yet
+    volatile boolean inFlight;
+    private volatile boolean cancelled;
+
+    /**
+     * @param name  effect type, used for per-type accounting
+     * @param owner player the effect belongs to - the caster, or the target for marks placed on someone
+     */
+    protected SpellEffect(String name, UUID owner) {
+        this.name = name;
+        this.owner = owner;
+    }
+
+    /** One step of the effect. Called every [period] ticks until cancelled. */
+    protected abstract void tick();
+
+    /** Called once when the effect is cancelled from outside (quit, disable), not when it finishes itself. */
+    protected void onForcedStop() {
+    }
+
+    /**
+     * Where the effect currently is, for region-threaded servers: each step
+     * runs on the region that owns this location. Null runs it with the owner.
+     */
+    protected Location anchorLocation() {
+        return null;
+    }
+
+    /** Entity the effect follows, for region-threaded servers; takes precedence over anchorLocation(). */
+    protected Entity anchorEntity() {
+        return null;
+    }
+
+    /** Stop the effect. Safe to call from inside tick(). */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public UUID getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,319 @@
+package io.github.shortvincentman.mcroguelite.mana;
+
+import java.util.Arrays;
+
+/**
+ * Dense mana state for every tracked player.
+ * Each player owns a slot; all values touched by the charge tick live in
+ * parallel primitive arrays so the tick walks flat memory instead of
+ * chasing per-player objects. This is the single source of truth for mana -
+ * boss bars only display what is stored here.
+ *
+ * Only slots whose mana is changing (charging, or draining back to zero) sit
+ * in the active set, so the tick cost scales with active chargers rather
+ * than with everyone online.
+ *
+ * All times (cooldowns, disruption, last chime) are server ticks from the TickClock.
+ *
+ * On Folia each slot's values are only touched from its player's region, but
+ * the slot pool and active set are shared, so their methods are synchronized.
+ * Slot values are stored in fixed-size pages that are never copied: growing
+ * only adds pages, so a write from another region can never land in an array
+ * that has just been replaced.
+ */
+public class ManaEngine {
+
+    // Per-slot flag bits
+    public static final int FLAG_IN_USE = 1;
+    public static final int FLAG_UNLOCKED = 1 << 1;
+    public static final int FLAG_CHARGING = 1 << 2;
+    public static final int FLAG_REACHED_FULL = 1 << 3;
+    public static final int FLAG_ACTIVE = 1 << 4;
+
+    // Bits returned by advance()
+    public static final int RESULT_ROSE = 1;
+    public static final int RESULT_FULL = 1 << 1;
+
+    // Caps scaling benefits at 200 full charges
+    private static final int MAX_SCALING_CHARGES = 200;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Slots per page
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /** Values for PAGE_SIZE consecutive slots, indexed by [slot & PAGE_MASK]. */
+    private static final class Page {
+        final double[] progress = new double[PAGE_SIZE];
+        final double[] chargeMultiplier = new double[PAGE_SIZE];
+        final double[] drainMultiplier = new double[PAGE_SIZE];
+        final long[] cooldownUntil = new long[PAGE_SIZE];
+        final long[] disruptedUntil = new long[PAGE_SIZE];
+        final long[] lastChargeSound = new long[PAGE_SIZE];
+        final int[] flags = new int[PAGE_SIZE];
+    }
+
+    // Replaced (never changed in place) when a page is added; pages themselves stay put
+    private volatile Page[] pages;
+
+    // Active set: dense list of slots plus each slot's position in it for O(1) removal.
+    // Only touched under the lock, so these may be grown by copying.
+    private int[] activeSlots;
+    private int[] activeIndex;
+    private int activeCount;
+
+    // Released slots are reused before the high water mark grows
+    private int[] freeSlots;
+    private int freeCount;
+    private volatile int highWater;
+
+    public ManaEngine() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ManaEngine(int initialCapacity) {
+        int pageCount = Math.max(1, (initialCapacity + PAGE_MASK) >> PAGE_SHIFT);
+        Page[] initial = new Page[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            initial[i] = new Page();
+        }
+        pages = initial;
+        int capacity = pageCount << PAGE_SHIFT;
+        activeSlots = new int[capacity];
+        activeIndex = new int[capacity];
+        freeSlots = new int[capacity];
+    }
+
+    private Page page(int slot) {
+        return pages[slot >> PAGE_SHIFT];
+    }
+
+    // -------- Slot Lifecycle --------
+
+    /** Claim a slot for a new player. All values start at zero. */
+    public synchronized int allocate() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = highWater;
+            if (slot >> PAGE_SHIFT == pages.length) {
+                addPage();
+            }
+            highWater = slot + 1;
+        }
+        clear(slot);
+        page(slot).flags[slot & PAGE_MASK] = FLAG_IN_USE;
+        setScaling(slot, 0);
+        return slot;
+    }
+
+    /** Return a slot to the pool once its player is gone. */
+    public synchronized void release(int slot) {
+        if (!isInUse(slot)) return;
+        deactivate(slot);
+        clear(slot);
+        freeSlots[freeCount++] = slot;
+    }
+
+    public synchronized void releaseAll() {
+        for (Page page : pages) {
+            Arrays.fill(page.flags, 0);
+        }
+        activeCount = 0;
+        freeCount = 0;
+        highWater = 0;
+    }
+
+    public boolean isInUse(int slot) {
+        return slot >= 0 && slot < highWater && (page(slot).flags[slot & PAGE_MASK] & FLAG_IN_USE) != 0;
+    }
+
+    private void clear(int slot) {
+        Page p = page(slot);
+        int i = slot & PAGE_MASK;
+        p.progress[i] = 0.0;
+        p.chargeMultiplier[i] = 1.0;
+        p.drainMultiplier[i] = 1.0;
+        p.cooldownUntil[i] = 0L;
+        p.disruptedUntil[i] = 0L;
+        p.lastChargeSound[i] = 0L;
+        p.flags[i] = 0;
+    }
+
+    private void addPage() {
+        Page[] grown = Arrays.copyOf(pages, pages.length + 1);
+        grown[grown.length - 1] = new Page();
+        int capacity = grown.length << PAGE_SHIFT;
+        activeSlots = Arrays.copyOf(activeSlots, capacity);
+        activeIndex = Arrays.copyOf(activeIndex, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        // Publish last, so a slot handed out below is never read before its page exists
+        pages = grown;
+    }
+
+    // -------- Active Set --------
+
+    /** Put a slot in the active set so the tick advances it. No-op if already active. */
+    public synchronized void activate(int slot) {
+        Page p = page(slot);
+        int i = slot & PAGE_MASK;
+        int f = p.flags[i];
+        if ((f & FLAG_IN_USE) == 0 || (f & FLAG_ACTIVE) != 0) return;
+        p.flags[i] = f | FLAG_ACTIVE;
+        activeIndex[slot] = activeCount;
+        activeSlots[activeCount++] = slot;
+    }
+
+    /** Remove a slot from the active set by swapping the last active slot into its place. */
+    public synchronized void deactivate(int slot) {
+        Page p = page(slot);
+        int i = slot & PAGE_MASK;
+        int f = p.flags[i];
+        if ((f & FLAG_ACTIVE) == 0) return;
+        p.flags[i] = f & ~FLAG_ACTIVE;
+
+        int index = activeIndex[slot];
+        int last = activeSlots[--activeCount];
+        activeSlots[index] = last;
+        activeIndex[last] = index;
+    }
+
+    public boolean isActive(int slot) {
+        return (page(slot).flags[slot & PAGE_MASK] & FLAG_ACTIVE) != 0;
+    }
+
+    public synchronized int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Active slot at position [index]. Deactivating the slot at [index] moves
+     * the last active slot into that position, so iterate from the end.
+     */
+    public synchronized int getActiveSlot(int index) {
+        return activeSlots[index];
+    }
+
+    /** A slot can leave the active set once fully drained and no longer charging. */
+    public boolean isSettled(int slot) {
+        Page p = page(slot);
+        int i = slot & PAGE_MASK;
+        return p.progress[i] <= 0.0 && (p.flags[i] & FLAG_CHARGING) == 0;
+    }
+
+    // -------- Tick --------
+
+    /**
+     * Advance one slot by a single charge tick.
+     * Charges while the player holds sneak (and isn't on cooldown or already full),
+     * otherwise drains - including during cooldown.
+     * @return RESULT_* bits describing what happened
+     */
+    public int advance(int slot, boolean sneaking, double baseChargeRate, double baseDrainRate, long now) {
+        Page p = page(slot);
+        int i = slot & PAGE_MASK;
+        int f = p.flags[i];
+        boolean reachedFull = (f & FLAG_REACHED_FULL) != 0;
+        boolean chargingNow = (f & FLAG_CHARGING) != 0 && sneaking && now >= p.cooldownUntil[i];
+
+        double oldProgress = p.progress[i];
+        double value = oldProgress;
+
+        if (chargingNow && !reachedFull) {
+            value += baseChargeRate * p.chargeMultiplier[i];
+        } else {
+            value -= baseDrainRate * p.drainMultiplier[i];
+        }
+
+        if (value < 0.0) value = 0.0;
+        if (value > 1.0) value = 1.0;
+        p.progress[i] = value;
+
+        int result = 0;
+        if (chargingNow && !reachedFull && value > oldProgress) {
+            result |= RESULT_ROSE;
+        }
+        if (value >= 1.0 && !reachedFull) {
+            result |= RESULT_FULL;
+        }
+        return result;
+    }
+
+    /** Mark a slot as having just filled: stop charging and block re-charging until [cooldownUntil]. */
+    public void markFull(int slot, long cooldownUntil) {
+        Page p = page(slot);
+        int i = slot & PAGE_MASK;
+        p.cooldownUntil[i] = cooldownUntil;
+        p.flags[i] = (p.flags[i] | FLAG_REACHED_FULL) & ~FLAG_CHARGING;
+    }
+
+    /**
+     * Recompute the charge/drain multipliers from a full charge count.
+     * Charge: +0.5% per charge (200 charges = 100% faster charging).
+     * Drain: -0.3% per charge, capped at 70% reduction.
+     */
+    public void setScaling(int slot, int fullCharges) {
+        Page p = page(slot);
+        int i = slot & PAGE_MASK;
+        int charges = Math.min(Math.max(0, fullCharges), MAX_SCALING_CHARGES);
+        p.chargeMultiplier[i] = 1.0 + (charges * 0.005);
+        p.drainMultiplier[i] = Math.max(0.3, 1.0 - (charges * 0.003));
+    }
+
+    // -------- Accessors --------
+
+    public double getProgress(int slot) {
+        return page(slot).progress[slot & PAGE_MASK];
+    }
+
+    public void setProgress(int slot, double value) {
+        if (value < 0.0) value = 0.0;
+        if (value > 1.0) value = 1.0;
+        page(slot).progress[slot & PAGE_MASK] = value;
+    }
+
+    public long getCooldownUntil(int slot) {
+        return page(slot).cooldownUntil[slot & PAGE_MASK];
+    }
+
+    public long getDisruptedUntil(int slot) {
+        return page(slot).disruptedUntil[slot & PAGE_MASK];
+    }
+
+    public void setDisruptedUntil(int slot, long until) {
+        page(slot).disruptedUntil[slot & PAGE_MASK] = until;
+    }
+
+    public long getLastChargeSound(int slot) {
+        return page(slot).lastChargeSound[slot & PAGE_MASK];
+    }
+
+    public void setLastChargeSound(int slot, long time) {
+        page(slot).lastChargeSound[slot & PAGE_MASK] = time;
+    }
+
+    public boolean hasFlag(int slot, int flag) {
+        return (page(slot).flags[slot & PAGE_MASK] & flag) != 0;
+    }
+
+    public void setFlag(int slot, int flag, boolean value) {
+        int[] flags = page(slot).flags;
+        int i = slot & PAGE_MASK;
+        if (value) {
+            flags[i] |= flag;
+        } else {
+            flags[i] &= ~flag;
+        }
+    }
+
+    public boolean isUnlocked(int slot) {
+        return (page(slot).flags[slot & PAGE_MASK] & FLAG_UNLOCKED) != 0;
+    }
+
+    public boolean isCharging(int slot) {
+        return (page(slot).flags[slot & PAGE_MASK] & FLAG_CHARGING) != 0;
+    }
+}
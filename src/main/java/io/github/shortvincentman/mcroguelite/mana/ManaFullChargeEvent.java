@@ -0,0 +1,37 @@
+package io.github.shortvincentman.mcroguelite.mana;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired when a player's mana bar fills from charging, on the thread that
+ * ticks that player (the main thread, or the player's region on Folia).
+ * Lets other systems react to the transition instead of polling every
+ * player's progress.
+ */
+public class ManaFullChargeEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final int fullChargeCount;
+
+    public ManaFullChargeEvent(Player player, int fullChargeCount) {
+        super(player);
+        this.fullChargeCount = fullChargeCount;
+    }
+
+    /** The player's full charge count, including this one. */
+    public int getFullChargeCount() {
+        return fullChargeCount;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.shortvincentman.mcroguelite.particle;
+
+import io.github.shortvincentman.mcroguelite.config.PluginSettings;
+import io.github.shortvincentman.mcroguelite.scheduler.TickClock;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends spell particles to each nearby viewer individually, at a level of
+ * detail that fits their distance and the tick's particle budgets.
+ *
+ * Instead of one world.spawnParticle broadcast at full count, every viewer
+ * within the view distance gets their own packet: the full count up close,
+ * half beyond a third of the view distance and a quarter beyond two thirds.
+ * Nobody further away receives anything.
+ *
+ * Two budgets cap a tick: particles spawned per chunk, and particles sent to
+ * each viewer. Both are soft - counts are full until half of a budget is
+ * used, then shrink linearly to nothing as the rest runs out - so a crowded
+ * fight thins out instead of cutting off. A count of 0 (a single particle
+ * using the offsets as direction or color) is never scaled, only skipped.
+ */
+public class ParticleService implements Listener {
+
+    /** Particles used by one viewer or chunk during the current tick. */
+    private static final class Usage {
+        private long tick = -1;
+        private int used;
+
+        /**
+         * Share of [amount] to send, 0..1, charging it against [budget].
+         * A budget of 0 never limits.
+         */
+        synchronized double take(long now, int amount, int budget) {
+            if (tick != now) {
+                tick = now;
+                used = 0;
+            }
+            if (budget <= 0) return 1.0;
+            if (used >= budget) return 0.0;
+            double scale = Math.min(1.0, 2.0 * (budget - used) / budget);
+            used += Math.max(1, (int) Math.ceil(amount * scale));
+            return scale;
+        }
+
+        synchronized boolean isStale(long now) {
+            return tick != now;
+        }
+    }
+
+    // Chunk usage is swept of old ticks once a world tracks more than this many chunks
+    private static final int CHUNK_SWEEP_THRESHOLD = 1024;
+
+    private final TickClock clock;
+
+    private volatile double viewDistance;
+    private volatile int viewerBudget;
+    private volatile int chunkBudget;
+
+    private final Map<UUID, Usage> viewers = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<Long, Usage>> chunks = new ConcurrentHashMap<>();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder trimmed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public ParticleService(TickClock clock, PluginSettings settings) {
+        this.clock = clock;
+        applySettings(settings);
+    }
+
+    public void applySettings(PluginSettings settings) {
+        this.viewDistance = settings.particleViewDistance();
+        this.viewerBudget = settings.particleViewerBudget();
+        this.chunkBudget = settings.particleChunkBudget();
+    }
+
+    // -------- Spawning --------
+
+    /** Same arguments as World.spawnParticle, for particles without data. */
+    public void spawn(Particle particle, Location at, int count, double offsetX, double offsetY, double offsetZ, double extra) {
+        spawn(particle, at, count, offsetX, offsetY, offsetZ, extra, null);
+    }
+
+    /** Same arguments as World.spawnParticle. */
+    public <T> void spawn(Particle particle, Location at, int count, double offsetX, double offsetY, double offsetZ,
+                          double extra, T data) {
+        World world = at.getWorld();
+        if (world == null) return;
+        long now = clock.now();
+
+        double chunkScale = chunkUsage(world, at, now).take(now, Math.max(count, 1), chunkBudget);
+        if (chunkScale <= 0) {
+            skipped.increment();
+            return;
+        }
+
+        double range = viewDistance;
+        double near2 = range * range / 9;
+        double mid2 = near2 * 4;
+        double far2 = range * range;
+        for (Player viewer : at.getNearbyPlayers(range)) {
+            double d2 = viewer.getLocation().distanceSquared(at);
+            if (d2 > far2) continue;
+            double tier = d2 <= near2 ? 1.0 : d2 <= mid2 ? 0.5 : 0.25;
+
+            int amount = count == 0 ? 0 : Math.max(1, (int) Math.ceil(count * chunkScale * tier));
+            double viewerScale = viewers.computeIfAbsent(viewer.getUniqueId(), k -> new Usage())
+                    .take(now, Math.max(amount, 1), viewerBudget);
+            if (viewerScale <= 0) {
+                skipped.increment();
+                continue;
+            }
+            if (amount > 0) {
+                amount = Math.max(1, (int) Math.ceil(amount * viewerScale));
+                if (amount < count) trimmed.increment();
+            }
+            viewer.spawnParticle(particle, at, amount, offsetX, offsetY, offsetZ, extra, data);
+            sent.increment();
+        }
+    }
+
+    private Usage chunkUsage(World world, Location at, long now) {
+        Map<Long, Usage> worldChunks = chunks.computeIfAbsent(world.getUID(), k -> new ConcurrentHashMap<>());
+        if (worldChunks.size() > CHUNK_SWEEP_THRESHOLD) {
+            worldChunks.values().removeIf(usage -> usage.isStale(now));
+        }
+        long key = ((long) (at.getBlockX() >> 4) << 32) | ((at.getBlockZ() >> 4) & 0xFFFFFFFFL);
+        return worldChunks.computeIfAbsent(key, k -> new Usage());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        viewers.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        chunks.remove(event.getWorld().getUID());
+    }
+
+    // -------- Introspection --------
+
+    /** Packets sent since the plugin enabled. */
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /** Packets sent with fewer particles than asked for (distance or budget). */
+    public long getTrimmedCount() {
+        return trimmed.sum();
+    }
+
+    /** Sends dropped entirely because a budget was used up. */
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+}
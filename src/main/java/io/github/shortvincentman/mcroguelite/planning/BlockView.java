@@ -0,0 +1,85 @@
+package io.github.shortvincentman.mcroguelite.planning;
+
+import io.github.shortvincentman.mcroguelite.spatial.VoxelRay;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+import org.bukkit.util.Vector;
+
+import java.util.Map;
+
+/**
+ * Read-only view of the blocks around a cast, backed by chunk snapshots taken
+ * when the cast started. Safe to read from any thread. Blocks in chunks that
+ * weren't captured (outside the footprint, or not loaded) read as null.
+ */
+public final class BlockView {
+
+    /**
+     * First block a ray ran into, the face it entered through and where.
+     * [unknown] means the ray reached a chunk that wasn't captured: the block
+     * is the first uncaptured one, and nothing past it was checked.
+     */
+    public record Hit(int x, int y, int z, BlockFace face, Vector position, boolean unknown) {
+    }
+
+    private final World world;
+    private final int minHeight;
+    private final int maxHeight;
+    private final Map<Long, ChunkSnapshot> chunks;
+
+    BlockView(World world, Map<Long, ChunkSnapshot> chunks) {
+        this.world = world;
+        this.minHeight = world.getMinHeight();
+        this.maxHeight = world.getMaxHeight();
+        this.chunks = chunks;
+    }
+
+    /** For building Locations only - never read blocks through it off the main thread. */
+    public World getWorld() {
+        return world;
+    }
+
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    /** Block type, VOID_AIR above or below the world, null if the chunk wasn't captured. */
+    public Material getType(int x, int y, int z) {
+        if (y < minHeight || y >= maxHeight) return Material.VOID_AIR;
+        ChunkSnapshot chunk = chunks.get(CastPlanner.chunkKey(x >> 4, z >> 4));
+        if (chunk == null) return null;
+        return chunk.getBlockType(x & 15, y, z & 15);
+    }
+
+    /** Unknown blocks are not air, so nothing is placed where we can't see. */
+    public boolean isAir(int x, int y, int z) {
+        Material type = getType(x, y, z);
+        return type != null && type.isAir();
+    }
+
+    /** Unknown blocks count as solid, so searches stop at the edge of what was captured. */
+    public boolean isSolid(int x, int y, int z) {
+        Material type = getType(x, y, z);
+        return type == null || type.isSolid();
+    }
+
+    /**
+     * Walk the blocks along a ray and return the first solid one within
+     * [maxDistance], treating every solid block as a full cube. If the ray
+     * leaves the captured area first, the hit is marked unknown at the edge.
+     * Null if nothing was hit.
+     */
+    public Hit rayTrace(Vector origin, Vector direction, double maxDistance) {
+        VoxelRay.Result result = VoxelRay.trace(origin, direction, maxDistance, (x, y, z) -> {
+            Material type = getType(x, y, z);
+            if (type == null) return VoxelRay.Verdict.STOP;
+            return type.isSolid() ? VoxelRay.Verdict.HIT : VoxelRay.Verdict.PASS;
+        });
+        if (result == null || result.verdict() == VoxelRay.Verdict.PASS) return null;
+        Vector position = direction.clone().normalize().multiply(result.distance()).add(origin);
+        return new Hit(result.x(), result.y(), result.z(), result.face(), position,
+                result.verdict() == VoxelRay.Verdict.STOP);
+    }
+}
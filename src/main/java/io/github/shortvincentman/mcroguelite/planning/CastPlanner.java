@@ -0,0 +1,132 @@
+package io.github.shortvincentman.mcroguelite.planning;
+
+import io.github.shortvincentman.mcroguelite.scheduler.TaskScheduler;
+import io.github.shortvincentman.mcroguelite.scheduler.TickClock;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.util.Vector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Plans block-heavy casts off the main thread.
+ *
+ * A cast captures the chunks its geometry can touch as ChunkSnapshots (on the
+ * thread that owns them), does its searches - landing spots, pillar bases,
+ * placement sets - against that BlockView on an async thread, then applies
+ * only the final changes back on the owning thread, a tick later. Apply steps
+ * must re-check anything a player could have changed in between.
+ *
+ * Snapshots are copies, so each chunk is captured at most once per tick and
+ * shared by every cast that needs it - during a large fight the casts in the
+ * same area pay for one copy. The cache only ever holds the latest tick's
+ * captures; the views handed to casts keep their own references.
+ */
+public class CastPlanner {
+
+    private record ChunkRef(UUID world, long key) {
+    }
+
+    private record Captured(long tick, ChunkSnapshot snapshot) {
+    }
+
+    private final TaskScheduler scheduler;
+    private final TickClock clock;
+    private final Logger logger;
+    // Only this tick's snapshots are reusable; older ones are dropped on the next capture
+    private final Map<ChunkRef, Captured> snapshots = new ConcurrentHashMap<>();
+    private volatile long sweptTick = -1;
+
+    public CastPlanner(TaskScheduler scheduler, TickClock clock, Logger logger) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.logger = logger;
+    }
+
+    // -------- Capture --------
+
+    /** Capture the chunks within [radius] blocks of [center] (horizontally). */
+    public BlockView captureAround(Location center, int radius) {
+        int x = center.getBlockX();
+        int z = center.getBlockZ();
+        return capture(center.getWorld(), x - radius, z - radius, x + radius, z + radius);
+    }
+
+    /** Capture the chunks a ray of [distance] from [origin] crosses, widened by [margin] blocks. */
+    public BlockView captureRay(Location origin, Vector direction, double distance, int margin) {
+        Vector end = origin.toVector().add(direction.clone().normalize().multiply(distance));
+        int minX = (int) Math.floor(Math.min(origin.getX(), end.getX())) - margin;
+        int minZ = (int) Math.floor(Math.min(origin.getZ(), end.getZ())) - margin;
+        int maxX = (int) Math.floor(Math.max(origin.getX(), end.getX())) + margin;
+        int maxZ = (int) Math.floor(Math.max(origin.getZ(), end.getZ())) + margin;
+        return capture(origin.getWorld(), minX, minZ, maxX, maxZ);
+    }
+
+    /** Capture every loaded chunk overlapping the block range; unloaded ones read as unknown. */
+    public BlockView capture(World world, int minX, int minZ, int maxX, int maxZ) {
+        long now = clock.now();
+        if (sweptTick != now) {
+            sweptTick = now;
+            snapshots.values().removeIf(captured -> captured.tick() != now);
+        }
+
+        Map<Long, ChunkSnapshot> chunks = new HashMap<>();
+        UUID worldId = world.getUID();
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                // Never load or generate a chunk just to plan a spell
+                if (!world.isChunkLoaded(cx, cz)) continue;
+                long key = chunkKey(cx, cz);
+                ChunkRef ref = new ChunkRef(worldId, key);
+                Captured captured = snapshots.get(ref);
+                if (captured == null || captured.tick() != now) {
+                    captured = new Captured(now, world.getChunkAt(cx, cz).getChunkSnapshot(false, false, false));
+                    snapshots.put(ref, captured);
+                }
+                chunks.put(key, captured.snapshot());
+            }
+        }
+        return new BlockView(world, chunks);
+    }
+
+    // -------- Planning --------
+
+    /** Compute a plan off-thread, then hand the result to [apply] on [entity]'s thread. Apply should check the entity is still valid. */
+    public <T> void submit(BlockView view, Entity entity, Function<BlockView, T> compute, Consumer<T> apply) {
+        scheduler.runAsync(() -> {
+            T plan = compute(view, compute);
+            if (plan != null) scheduler.runFor(entity, () -> apply.accept(plan));
+        });
+    }
+
+    /** Compute a plan off-thread, then hand the result to [apply] on the thread that owns [location]. */
+    public <T> void submit(BlockView view, Location location, Function<BlockView, T> compute, Consumer<T> apply) {
+        Location at = location.clone();
+        scheduler.runAsync(() -> {
+            T plan = compute(view, compute);
+            if (plan != null) scheduler.runAt(at, () -> apply.accept(plan));
+        });
+    }
+
+    private <T> T compute(BlockView view, Function<BlockView, T> compute) {
+        try {
+            return compute.apply(view);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Cast planning failed", e);
+            return null;
+        }
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,216 @@
+package io.github.shortvincentman.mcroguelite.profile;
+
+import io.github.shortvincentman.mcroguelite.storage.PlayerData;
+
+import java.util.UUID;
+
+/**
+ * Everything the plugin remembers about one player.
+ * Persisted fields are only changed through setters so the profile knows when
+ * it needs saving; session fields start fresh every time the profile is loaded.
+ * Setters may run on any thread (on Folia, whichever region owns the player)
+ * while the autosave snapshots from the global region: persisted changes are
+ * made under the profile's lock and bump a version, and a snapshot only marks
+ * clean the version it copied, so a change racing an autosave is never lost.
+ * Storage gets immutable PlayerData snapshots.
+ */
+public class PlayerProfile {
+
+    private final UUID playerId;
+
+    // Persisted; written under the lock, volatile for lock-free reads
+    private volatile boolean manaUnlocked;
+    private volatile boolean hasReceivedManaMessage;
+    private volatile int fullChargeCount;
+    private volatile boolean manaRunUnlocked;
+    private volatile boolean manaClimbUnlocked;
+    private volatile boolean manaDashUnlocked;
+    private volatile int climbLevel = 1;
+    private volatile int climbUseCount;
+
+    // Session only - attunement is cached from the player's PDC and written back by ManaManager
+    private int attunementLevel = -1;
+    private boolean attunementDirty;
+
+    // Bumped by every persisted change; dirty while it differs from the last snapshotted version.
+    // Guarded by this
+    private long version;
+    private long savedVersion;
+    // Stand-in for a player whose saved data couldn't be read - never saved over it
+    private volatile boolean detached;
+
+    /** A brand-new player with nothing saved yet. */
+    PlayerProfile(UUID playerId, boolean manaUnlocked) {
+        this.playerId = playerId;
+        this.manaUnlocked = manaUnlocked;
+        this.version = 1;
+    }
+
+    /** A player loaded from storage. */
+    PlayerProfile(PlayerData data) {
+        this.playerId = data.playerId();
+        this.manaUnlocked = data.manaUnlocked();
+        this.hasReceivedManaMessage = data.hasReceivedManaMessage();
+        this.fullChargeCount = data.fullChargeCount();
+        this.manaRunUnlocked = data.manaRunUnlocked();
+        this.manaClimbUnlocked = data.manaClimbUnlocked();
+        this.manaDashUnlocked = data.manaDashUnlocked();
+        this.climbLevel = Math.max(1, data.climbLevel());
+        this.climbUseCount = data.climbUseCount();
+    }
+
+    /**
+     * Immutable copy of the persisted fields for the writer if anything
+     * changed since the last one, else null. Marks clean only what it copied.
+     */
+    synchronized PlayerData snapshotIfDirty() {
+        if (detached || version == savedVersion) return null;
+        savedVersion = version;
+        return new PlayerData(
+                playerId,
+                manaUnlocked,
+                hasReceivedManaMessage,
+                fullChargeCount,
+                manaRunUnlocked,
+                manaClimbUnlocked,
+                manaDashUnlocked,
+                climbLevel,
+                climbUseCount
+        );
+    }
+
+    /** Never save this profile; used when the real data couldn't be loaded. */
+    void detach() {
+        detached = true;
+    }
+
+    boolean isDetached() {
+        return detached;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    // -------- Mana --------
+
+    public boolean isManaUnlocked() {
+        return manaUnlocked;
+    }
+
+    public synchronized void setManaUnlocked(boolean value) {
+        if (manaUnlocked != value) {
+            manaUnlocked = value;
+            version++;
+        }
+    }
+
+    public boolean hasReceivedManaMessage() {
+        return hasReceivedManaMessage;
+    }
+
+    public synchronized void setReceivedManaMessage(boolean value) {
+        if (hasReceivedManaMessage != value) {
+            hasReceivedManaMessage = value;
+            version++;
+        }
+    }
+
+    public int getFullChargeCount() {
+        return fullChargeCount;
+    }
+
+    public synchronized void setFullChargeCount(int value) {
+        if (fullChargeCount != value) {
+            fullChargeCount = value;
+            version++;
+        }
+    }
+
+    // -------- Trained Abilities --------
+
+    public boolean isManaRunUnlocked() {
+        return manaRunUnlocked;
+    }
+
+    public synchronized void setManaRunUnlocked(boolean value) {
+        if (manaRunUnlocked != value) {
+            manaRunUnlocked = value;
+            version++;
+        }
+    }
+
+    public boolean isManaClimbUnlocked() {
+        return manaClimbUnlocked;
+    }
+
+    public synchronized void setManaClimbUnlocked(boolean value) {
+        if (manaClimbUnlocked != value) {
+            manaClimbUnlocked = value;
+            version++;
+        }
+    }
+
+    public boolean isManaDashUnlocked() {
+        return manaDashUnlocked;
+    }
+
+    public synchronized void setManaDashUnlocked(boolean value) {
+        if (manaDashUnlocked != value) {
+            manaDashUnlocked = value;
+            version++;
+        }
+    }
+
+    // -------- Climbing --------
+
+    public int getClimbLevel() {
+        return climbLevel;
+    }
+
+    public synchronized void setClimbLevel(int value) {
+        if (climbLevel != value) {
+            climbLevel = value;
+            version++;
+        }
+    }
+
+    public int getClimbUseCount() {
+        return climbUseCount;
+    }
+
+    public synchronized void setClimbUseCount(int value) {
+        if (climbUseCount != value) {
+            climbUseCount = value;
+            version++;
+        }
+    }
+
+    // -------- Session --------
+
+    /** Cached attunement level, or -1 if not read from the player yet. */
+    public int getAttunementLevel() {
+        return attunementLevel;
+    }
+
+    /** Cache the attunement level as read from the player, without marking it changed. */
+    public void loadAttunementLevel(int value) {
+        attunementLevel = value;
+        attunementDirty = false;
+    }
+
+    public void setAttunementLevel(int value) {
+        if (attunementLevel != value) {
+            attunementLevel = value;
+            attunementDirty = true;
+        }
+    }
+
+    public boolean isAttunementDirty() {
+        return attunementDirty;
+    }
+
+    public void markAttunementWritten() {
+        attunementDirty = false;
+    }
+}
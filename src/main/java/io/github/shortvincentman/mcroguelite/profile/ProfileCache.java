@@ -0,0 +1,296 @@
+package io.github.shortvincentman.mcroguelite.profile;
+
+import io.github.shortvincentman.mcroguelite.Mcroguelite;
+import io.github.shortvincentman.mcroguelite.storage.MappedPlayerDataStore;
+import io.github.shortvincentman.mcroguelite.storage.PlayerData;
+import io.github.shortvincentman.mcroguelite.storage.PlayerDataLoadException;
+import io.github.shortvincentman.mcroguelite.storage.PlayerDataStore;
+import io.github.shortvincentman.mcroguelite.storage.PlayerDataWriter;
+import io.github.shortvincentman.mcroguelite.storage.SqlitePlayerDataStore;
+import io.github.shortvincentman.mcroguelite.storage.YamlPlayerDataStore;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Owns every player's profile and its persistence.
+ *
+ * Lifecycle: profiles are read off-thread during async pre-login, become
+ * online at join (LOWEST, before any other listener sees the player), and
+ * go offline at quit (MONITOR, after everyone else is done with them). On
+ * quit a dirty profile is queued for saving and kept in a small LRU so a
+ * quick rejoin never touches storage. The LRU is size-bounded; anything
+ * evicted while still dirty is written back first, so memory stays flat no
+ * matter how many players have come and gone.
+ *
+ * Joins, quits and lookups can arrive from different region threads on
+ * Folia, so the online map is concurrent and the LRU is locked on itself.
+ */
+public class ProfileCache implements Listener {
+
+    private final Mcroguelite plugin;
+    private final PlayerDataWriter writer;
+    // What openStore actually opened, after any fallback. Fixed until restart,
+    // unlike storage.type in the settings, which a reload can change.
+    private String storeType;
+    private File storeFile;
+
+    private final Map<UUID, PlayerProfile> online = new ConcurrentHashMap<>();
+    // Guarded by itself
+    private final LinkedHashMap<UUID, PlayerProfile> offline;
+    // Data read during async pre-login, waiting for the join handoff (empty = no saved data)
+    private final Map<UUID, Optional<PlayerData>> preloaded = new ConcurrentHashMap<>();
+
+    public ProfileCache(Mcroguelite plugin) {
+        this.plugin = plugin;
+        this.writer = new PlayerDataWriter(openStore(plugin.getSettings().storageType()), plugin.getLogger());
+
+        int maxOffline = plugin.getSettings().offlineProfileCacheSize();
+        // Access order, so the eldest entry is the least recently used
+        this.offline = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlayerProfile> eldest) {
+                if (size() <= maxOffline) return false;
+                save(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Open the configured storage backend, falling back to YAML files if
+     * the database or record file can't be opened.
+     */
+    private PlayerDataStore openStore(String type) {
+        File dataFolder = plugin.getDataFolder();
+        if (type.equals("sqlite")) {
+            try {
+                File file = new File(dataFolder, "playerdata.db");
+                PlayerDataStore store = new SqlitePlayerDataStore(file, plugin.getLogger());
+                storeType = "sqlite";
+                storeFile = file;
+                return store;
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Could not open playerdata.db, using YAML files instead: " + e.getMessage());
+            }
+        } else if (type.equals("mapped")) {
+            try {
+                File file = new File(dataFolder, "playerdata.dat");
+                PlayerDataStore store = new MappedPlayerDataStore(file, plugin.getLogger());
+                storeType = "mapped";
+                storeFile = file;
+                return store;
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not open playerdata.dat, using YAML files instead: " + e.getMessage());
+            }
+        } else if (!type.equals("yaml")) {
+            plugin.getLogger().warning("Unknown storage.type '" + type + "', using YAML files.");
+        }
+        storeType = "yaml";
+        storeFile = new File(dataFolder, "playerdata");
+        return new YamlPlayerDataStore(storeFile, plugin.getLogger());
+    }
+
+    /** The store type in use ("yaml", "sqlite" or "mapped"); only a restart changes it. */
+    public String getStoreType() {
+        return storeType;
+    }
+
+    /** The file (or folder, for YAML) the live store writes to. */
+    public File getStoreFile() {
+        return storeFile;
+    }
+
+    // -------- Lookup --------
+
+    /**
+     * Profile of an online player. If the join handoff hasn't happened yet
+     * (e.g. players already online when the plugin enabled) it is loaded now.
+     */
+    public PlayerProfile get(UUID playerId) {
+        PlayerProfile profile = online.get(playerId);
+        if (profile == null) {
+            profile = bringOnline(playerId);
+        }
+        return profile;
+    }
+
+    /** Profile of an online player, or null without loading anything. */
+    public PlayerProfile getIfOnline(UUID playerId) {
+        return online.get(playerId);
+    }
+
+    public int getOnlineCount() {
+        return online.size();
+    }
+
+    public int getOfflineCount() {
+        synchronized (offline) {
+            return offline.size();
+        }
+    }
+
+    private PlayerProfile bringOnline(UUID playerId) {
+        Optional<PlayerData> staged = preloaded.remove(playerId);
+
+        // A recently quit player is still cached and newer than anything stored
+        PlayerProfile profile;
+        synchronized (offline) {
+            profile = offline.remove(playerId);
+        }
+        if (profile == null) {
+            // A quit-save queued after pre-login (e.g. relogging over an old session) is newer
+            PlayerData data = writer.getPending(playerId);
+            boolean failed = false;
+            if (data == null) {
+                if (staged != null) {
+                    data = staged.orElse(null);
+                } else {
+                    // Not staged (plugin enabled mid-login) - fall back to a direct read
+                    try {
+                        data = writer.load(playerId);
+                    } catch (PlayerDataLoadException e) {
+                        plugin.getLogger().log(Level.SEVERE, e.getMessage(), e.getCause());
+                        failed = true;
+                    }
+                }
+            }
+            profile = data != null
+                    ? new PlayerProfile(data)
+                    : new PlayerProfile(playerId, plugin.getSettings().autoUnlock());
+            if (failed) {
+                // Defaults to play with until they're kicked, never written over the real data
+                profile.detach();
+            }
+            plugin.getLogger().fine("Loaded profile for player " + playerId + " (charges: " + profile.getFullChargeCount() + ")");
+        }
+
+        online.put(playerId, profile);
+        return profile;
+    }
+
+    // -------- Lifecycle --------
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        // Runs off the main thread - do the storage read here so join never touches disk
+        UUID id = event.getUniqueId();
+        try {
+            preloaded.put(id, Optional.ofNullable(writer.load(id)));
+        } catch (PlayerDataLoadException e) {
+            // Letting them in as a new player would save defaults over their data
+            plugin.getLogger().log(Level.WARNING, e.getMessage(), e.getCause());
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    Component.text("Your player data couldn't be loaded. Please try again in a moment.", NamedTextColor.RED));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        // Login refused after pre-login - drop the staged data
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            preloaded.remove(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        PlayerProfile profile = get(event.getPlayer().getUniqueId());
+        if (profile.isDetached()) {
+            event.getPlayer().kick(Component.text("Your player data couldn't be loaded. Please rejoin.", NamedTextColor.RED));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        UUID id = event.getPlayer().getUniqueId();
+        PlayerProfile profile = online.remove(id);
+        if (profile == null || profile.isDetached()) return;
+
+        save(profile);
+        synchronized (offline) {
+            offline.put(id, profile);
+        }
+    }
+
+    // -------- Persistence --------
+
+    /** Queue a profile for saving if anything persisted changed. */
+    private void save(PlayerProfile profile) {
+        PlayerData data = profile.snapshotIfDirty();
+        if (data != null) {
+            writer.enqueue(data);
+        }
+    }
+
+    /**
+     * Periodic autosave: snapshot every profile whose persisted fields changed
+     * since its last save and hand them to the writer as one batch.
+     * @return how many profiles were queued
+     */
+    public int autosaveDirty() {
+        List<PlayerData> batch = new ArrayList<>();
+        collectDirty(online, batch);
+        synchronized (offline) {
+            collectDirty(offline, batch);
+        }
+        writer.enqueueAll(batch);
+        return batch.size();
+    }
+
+    private static void collectDirty(Map<UUID, PlayerProfile> profiles, List<PlayerData> batch) {
+        // Plain value iteration doesn't count as an access for the LRU
+        for (PlayerProfile profile : profiles.values()) {
+            PlayerData data = profile.snapshotIfDirty();
+            if (data != null) {
+                batch.add(data);
+            }
+        }
+    }
+
+    /**
+     * Wait (bounded) until every save queued so far is in the store.
+     * Blocks, so never call it on the main thread.
+     * @return false if the writer didn't finish in time
+     */
+    public boolean flush(long timeoutMs) {
+        return writer.flush(timeoutMs);
+    }
+
+    /**
+     * Save every dirty profile and wait (bounded) for the writer to finish.
+     * Call on plugin disable.
+     */
+    public void saveAll(long flushTimeoutMs) {
+        autosaveDirty();
+        int queued = writer.getPendingCount();
+        writer.shutdown(flushTimeoutMs);
+        plugin.getLogger().info("Flushed player data for " + queued + " players.");
+
+        online.clear();
+        synchronized (offline) {
+            offline.clear();
+        }
+        preloaded.clear();
+    }
+
+}
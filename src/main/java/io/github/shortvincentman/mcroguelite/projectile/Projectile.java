@@ -0,0 +1,109 @@
+package io.github.shortvincentman.mcroguelite.projectile;
+
+import io.github.shortvincentman.mcroguelite.effect.SpellEffect;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+/**
+ * A spell projectile flown by the ProjectileEngine: a sphere of [radius]
+ * moving [speed] blocks per tick in a straight line for up to [range] blocks.
+ * Subclasses react to what it runs into; the engine does the moving and the
+ * collision tests.
+ */
+public abstract class Projectile extends SpellEffect {
+
+    private final Player caster;
+    private final Location position;
+    private final Vector direction;
+    private final double speed;
+    private final double radius;
+    private final double range;
+    private double traveled;
+
+    // Set by the engine at launch
+    ProjectileEngine engine;
+
+    /**
+     * @param origin    where the projectile starts (copied)
+     * @param direction flight direction (normalized copy)
+     * @param speed     blocks per tick
+     * @param radius    how close it has to pass an entity's bounding box to hit it
+     * @param range     blocks it flies before expiring
+     */
+    protected Projectile(String name, Player caster, Location origin, Vector direction,
+                         double speed, double radius, double range) {
+        super(name, caster.getUniqueId());
+        this.caster = caster;
+        this.position = origin.clone();
+        this.direction = direction.clone().normalize();
+        this.speed = speed;
+        this.radius = radius;
+        this.range = range;
+    }
+
+    /** Whether a block of [type] stops the projectile. Solid blocks by default. */
+    protected boolean stopsAt(Material type) {
+        return type.isSolid();
+    }
+
+    /** Called after each step the projectile survives, at its new position (trails). */
+    protected void onFlight(Location position) {
+    }
+
+    /** Hit [target] at [position]. The projectile is already cancelled. */
+    protected abstract void onHitEntity(LivingEntity target, Location position);
+
+    /** Ran into a block; [position] is on its surface. The projectile is already cancelled. */
+    protected void onHitBlock(Location position) {
+    }
+
+    /**
+     * Flew its full range, or reached a chunk that isn't loaded (it never
+     * loads one). The projectile is already cancelled.
+     */
+    protected void onExpire(Location position) {
+    }
+
+    @Override
+    protected final void tick() {
+        engine.step(this);
+    }
+
+    @Override
+    protected final Location anchorLocation() {
+        return position;
+    }
+
+    public Player getCaster() {
+        return caster;
+    }
+
+    /** Current position. Live - clone it to keep it. */
+    public Location getPosition() {
+        return position;
+    }
+
+    public Vector getDirection() {
+        return direction;
+    }
+
+    double getSpeed() {
+        return speed;
+    }
+
+    double getRadius() {
+        return radius;
+    }
+
+    double getRemaining() {
+        return range - traveled;
+    }
+
+    void advance(double distance) {
+        position.add(direction.getX() * distance, direction.getY() * distance, direction.getZ() * distance);
+        traveled += distance;
+    }
+}
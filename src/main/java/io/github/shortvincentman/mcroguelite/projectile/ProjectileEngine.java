@@ -0,0 +1,88 @@
+package io.github.shortvincentman.mcroguelite.projectile;
+
+import io.github.shortvincentman.mcroguelite.effect.EffectTicker;
+import io.github.shortvincentman.mcroguelite.spatial.EntityIndex;
+import io.github.shortvincentman.mcroguelite.spatial.VoxelRay;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Flies every spell projectile. Projectiles run as effects on the shared
+ * EffectTicker, so all of them are stepped in its single pass each tick.
+ *
+ * Each step sweeps the whole segment the projectile covers that tick rather
+ * than testing only where it lands: blocks are walked one by one along the
+ * segment (voxel traversal), so thin walls can't be skipped, and entities are
+ * tested against the segment with the projectile's radius through the
+ * EntityIndex. Whichever is hit first wins. A step never reads a block in an
+ * unloaded chunk - the projectile expires at the chunk edge instead - so a
+ * shot at the horizon costs the same as any other and loads nothing.
+ */
+public class ProjectileEngine {
+
+    private final EffectTicker ticker;
+    private final EntityIndex entities;
+
+    public ProjectileEngine(EffectTicker ticker, EntityIndex entities) {
+        this.ticker = ticker;
+        this.entities = entities;
+    }
+
+    /** Start flying [projectile] from the next tick. */
+    public <T extends Projectile> T launch(T projectile) {
+        projectile.engine = this;
+        return ticker.start(projectile);
+    }
+
+    void step(Projectile projectile) {
+        Location position = projectile.getPosition();
+        World world = position.getWorld();
+        double distance = Math.min(projectile.getSpeed(), projectile.getRemaining());
+
+        // Blocks along this tick's segment
+        int[] lastChunk = {Integer.MIN_VALUE, Integer.MIN_VALUE};
+        VoxelRay.Result block = VoxelRay.trace(position.toVector(), projectile.getDirection(), distance, (x, y, z) -> {
+            int cx = x >> 4;
+            int cz = z >> 4;
+            if (cx != lastChunk[0] || cz != lastChunk[1]) {
+                // Never trigger a sync load for a projectile
+                if (!world.isChunkLoaded(cx, cz)) return VoxelRay.Verdict.STOP;
+                lastChunk[0] = cx;
+                lastChunk[1] = cz;
+            }
+            if (y < world.getMinHeight() || y >= world.getMaxHeight()) return VoxelRay.Verdict.PASS;
+            return projectile.stopsAt(world.getType(x, y, z)) ? VoxelRay.Verdict.HIT : VoxelRay.Verdict.PASS;
+        });
+        double blockDistance = block != null ? block.distance() : distance;
+
+        // Entities the swept sphere touches before the block
+        EntityIndex.RayHit hit = entities.rayCast(position, projectile.getDirection(), blockDistance,
+                projectile.getRadius(), projectile.getCaster());
+        if (hit != null) {
+            finish(projectile, hit.distance(), () -> projectile.onHitEntity(hit.entity(), position));
+            return;
+        }
+        if (block != null) {
+            if (block.verdict() == VoxelRay.Verdict.HIT) {
+                finish(projectile, blockDistance, () -> projectile.onHitBlock(position));
+            } else {
+                finish(projectile, blockDistance, () -> projectile.onExpire(position));
+            }
+            return;
+        }
+
+        projectile.advance(distance);
+        if (projectile.getRemaining() <= 0) {
+            finish(projectile, 0, () -> projectile.onExpire(position));
+            return;
+        }
+        projectile.onFlight(position);
+    }
+
+    private static void finish(Projectile projectile, double distance, Runnable callback) {
+        projectile.advance(distance);
+        // Cancelled first, so a failing callback can't leave it flying
+        projectile.cancel();
+        callback.run();
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/** Single main thread: every kind of work goes to the Bukkit scheduler. */
+class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public Task runTimer(Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    @Override
+    public Task runLater(Runnable task, long delayTicks) {
+        BukkitTask scheduled = Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void run(Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public void runAt(Location location, Runnable task) {
+        runOnMain(task);
+    }
+
+    @Override
+    public void runFor(Entity entity, Runnable task, Runnable retired) {
+        // One thread owns every entity; the task checks validity itself
+        runOnMain(task);
+    }
+
+    @Override
+    public Task runTimerFor(Entity entity, Runnable task, long delayTicks, long periodTicks) {
+        return runTimer(task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    private void runOnMain(Runnable task) {
+        // Also run inline during disable, when the scheduler no longer accepts tasks
+        if (Bukkit.isPrimaryThread() || !plugin.isEnabled()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Folia: global work on the global region, entity work on the entity's own
+ * scheduler (it follows the entity across regions), block work on the region
+ * that owns the location. Folia rejects delays below one tick.
+ */
+class FoliaTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Task runTimer(Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask scheduled = Bukkit.getGlobalRegionScheduler()
+                .runAtFixedRate(plugin, t -> task.run(), Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return scheduled::cancel;
+    }
+
+    @Override
+    public Task runLater(Runnable task, long delayTicks) {
+        ScheduledTask scheduled = Bukkit.getGlobalRegionScheduler()
+                .runDelayed(plugin, t -> task.run(), Math.max(1L, delayTicks));
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void run(Runnable task) {
+        Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        Bukkit.getAsyncScheduler().runNow(plugin, t -> task.run());
+    }
+
+    @Override
+    public void runAt(Location location, Runnable task) {
+        // Inline during disable - Folia no longer accepts tasks from the plugin then
+        if (Bukkit.isOwnedByCurrentRegion(location) || !plugin.isEnabled()) {
+            task.run();
+        } else {
+            Bukkit.getRegionScheduler().execute(plugin, location, task);
+        }
+    }
+
+    @Override
+    public void runFor(Entity entity, Runnable task, Runnable retired) {
+        if (Bukkit.isOwnedByCurrentRegion(entity) || !plugin.isEnabled()) {
+            task.run();
+        } else if (!entity.getScheduler().execute(plugin, task, retired, 1L) && retired != null) {
+            // Already removed - the scheduler won't call back
+            retired.run();
+        }
+    }
+
+    @Override
+    public Task runTimerFor(Entity entity, Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask scheduled = entity.getScheduler()
+                .runAtFixedRate(plugin, t -> task.run(), null, Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        // Null when the entity was already removed
+        return scheduled != null ? scheduled::cancel : () -> { };
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+import io.github.shortvincentman.mcroguelite.profile.PlayerProfile;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-player view shared by every stage of one PlayerTickPipeline pass.
+ * Values are read from the player at most once per tick, on first use, and
+ * the same objects are reused every tick - nothing is allocated per pass.
+ */
+public final class PlayerTickContext {
+
+    private final Player player;
+    private final UUID playerId;
+    private final PlayerProfile profile;
+    private final ToDoubleFunction<Player> manaReader;
+    private final int hash;
+
+    private long now;
+    // Folia: this player's own pipeline task
+    TaskScheduler.Task task;
+
+    // Lazily read this tick
+    private final Location location = new Location(null, 0, 0, 0);
+    private boolean locationRead;
+    private int flags;
+    private double mana;
+    private boolean manaRead;
+
+    private static final int FLAGS_READ = 1;
+    private static final int SNEAKING = 1 << 1;
+    private static final int SPRINTING = 1 << 2;
+
+    PlayerTickContext(Player player, PlayerProfile profile, ToDoubleFunction<Player> manaReader) {
+        this.player = player;
+        this.playerId = player.getUniqueId();
+        this.profile = profile;
+        this.manaReader = manaReader;
+        this.hash = playerId.hashCode();
+    }
+
+    void cancelTask() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /** Start a new pass; everything cached from the last one is stale. */
+    void begin(long tick) {
+        now = tick;
+        locationRead = false;
+        flags = 0;
+        manaRead = false;
+    }
+
+    public Player player() {
+        return player;
+    }
+
+    public UUID playerId() {
+        return playerId;
+    }
+
+    public PlayerProfile profile() {
+        return profile;
+    }
+
+    /**
+     * This player's bucket in [0, buckets) when work is split [buckets] ways -
+     * stable across ticks and restarts.
+     */
+    public int shard(int buckets) {
+        return Math.floorMod(hash, buckets);
+    }
+
+    /** Current server tick. */
+    public long now() {
+        return now;
+    }
+
+    /** The player's location this tick. Shared - clone it before changing or keeping it. */
+    public Location location() {
+        if (!locationRead) {
+            player.getLocation(location);
+            locationRead = true;
+        }
+        return location;
+    }
+
+    public boolean isSneaking() {
+        return (readFlags() & SNEAKING) != 0;
+    }
+
+    public boolean isSprinting() {
+        return (readFlags() & SPRINTING) != 0;
+    }
+
+    private int readFlags() {
+        if ((flags & FLAGS_READ) == 0) {
+            flags = FLAGS_READ
+                    | (player.isSneaking() ? SNEAKING : 0)
+                    | (player.isSprinting() ? SPRINTING : 0);
+        }
+        return flags;
+    }
+
+    /** Mana bar progress (0 if mana is locked). */
+    public double mana() {
+        if (!manaRead) {
+            mana = manaReader.applyAsDouble(player);
+            manaRead = true;
+        }
+        return mana;
+    }
+
+    /** A stage changed the player's mana; later stages re-read it. */
+    public void invalidateMana() {
+        manaRead = false;
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+import io.github.shortvincentman.mcroguelite.profile.ProfileCache;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One pass over online players per tick, shared by every per-player system.
+ * Systems register a stage with its own interval instead of running their
+ * own timer over Bukkit.getOnlinePlayers(); each tick the pipeline walks the
+ * players once and runs every stage that is due, in registration order,
+ * against a cached PlayerTickContext.
+ *
+ * Periodic stages are sharded by default: a stage with interval N splits
+ * players into N buckets by a stable hash of their UUID and handles one bucket
+ * per tick. Every player is still visited every N ticks, but the work is
+ * spread evenly instead of landing on one tick in N.
+ *
+ * On Folia there is no thread that may touch every player, so each player
+ * instead gets their own repeating task on their entity scheduler, which runs
+ * the same stages on whichever region currently owns them.
+ */
+public class PlayerTickPipeline implements Runnable, Listener {
+
+    /** Per-player work run by the pipeline. */
+    @FunctionalInterface
+    public interface Stage {
+        void tick(PlayerTickContext ctx);
+    }
+
+    private static final class Registered {
+        final String name;
+        final int interval;
+        final boolean sharded;
+        final Stage stage;
+        volatile boolean failed;
+
+        Registered(String name, int interval, boolean sharded, Stage stage) {
+            this.name = name;
+            this.interval = interval;
+            this.sharded = sharded && interval > 1;
+            this.stage = stage;
+        }
+    }
+
+    private final TaskScheduler scheduler;
+    private final TickClock clock;
+    private final TickBudget budget;
+    private final ProfileCache profiles;
+    private final ToDoubleFunction<Player> manaReader;
+    private final Logger logger;
+
+    // Registered before start, read-only afterwards
+    private final List<Registered> stages = new ArrayList<>();
+    // Joins and quits arrive on the player's own region under Folia
+    private final Map<UUID, PlayerTickContext> contexts = new ConcurrentHashMap<>();
+    private TaskScheduler.Task task;
+    private boolean running;
+
+    public PlayerTickPipeline(TaskScheduler scheduler, TickClock clock, TickBudget budget, ProfileCache profiles,
+                              ToDoubleFunction<Player> manaReader, Logger logger) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.budget = budget;
+        this.profiles = profiles;
+        this.manaReader = manaReader;
+        this.logger = logger;
+    }
+
+    /**
+     * Add a stage that runs for every online player every [interval] ticks,
+     * sharded so each tick handles 1/[interval] of the players.
+     * Stages run in the order they were registered.
+     */
+    public void register(String name, int interval, Stage stage) {
+        register(name, interval, true, stage);
+    }
+
+    /**
+     * Add a stage; with [sharded] false every player is handled on the same
+     * tick (for work that must see everyone at once).
+     */
+    public void register(String name, int interval, boolean sharded, Stage stage) {
+        stages.add(new Registered(name, Math.max(1, interval), sharded, stage));
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        // Players already online (plugin enabled on a running server)
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            add(player);
+        }
+        if (!scheduler.isRegionized()) {
+            task = scheduler.runTimer(this, 1L, 1L);
+        }
+    }
+
+    public void stop() {
+        running = false;
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (PlayerTickContext ctx : contexts.values()) {
+            ctx.cancelTask();
+        }
+        contexts.clear();
+    }
+
+    // -------- Players --------
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onJoin(PlayerJoinEvent event) {
+        // After ProfileCache (LOWEST), so the profile is online
+        add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        PlayerTickContext ctx = contexts.remove(event.getPlayer().getUniqueId());
+        if (ctx != null) {
+            ctx.cancelTask();
+        }
+    }
+
+    private void add(Player player) {
+        if (!running) return;
+        PlayerTickContext ctx = new PlayerTickContext(player, profiles.get(player.getUniqueId()), manaReader);
+        PlayerTickContext old = contexts.put(ctx.playerId(), ctx);
+        if (old != null) {
+            old.cancelTask();
+        }
+        if (scheduler.isRegionized()) {
+            ctx.task = scheduler.runTimerFor(player, () -> tickPlayer(ctx, clock.now()), 1L, 1L);
+        }
+    }
+
+    // -------- Tick --------
+
+    @Override
+    public void run() {
+        if (contexts.isEmpty()) return;
+        long now = clock.now();
+        long start = System.nanoTime();
+        for (PlayerTickContext ctx : contexts.values()) {
+            tickPlayer(ctx, now);
+        }
+        budget.charge(System.nanoTime() - start);
+    }
+
+    private void tickPlayer(PlayerTickContext ctx, long now) {
+        ctx.begin(now);
+        for (int s = 0; s < stages.size(); s++) {
+            Registered registered = stages.get(s);
+            if (!isDue(registered, ctx, now)) continue;
+            try {
+                registered.stage.tick(ctx);
+            } catch (RuntimeException e) {
+                // Keep the other stages and players going; log each broken stage once
+                if (!registered.failed) {
+                    registered.failed = true;
+                    logger.log(Level.WARNING, "Player tick stage '" + registered.name + "' failed", e);
+                }
+            }
+        }
+    }
+
+    private static boolean isDue(Registered registered, PlayerTickContext ctx, long now) {
+        if (registered.sharded) {
+            // Due every tick, but only for this tick's bucket
+            return ctx.shard(registered.interval) == now % registered.interval;
+        }
+        return now % registered.interval == 0;
+    }
+
+    public int getPlayerCount() {
+        return contexts.size();
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Where the plugin's work runs. On Paper everything goes to the main thread;
+ * on Folia, global work goes to the global region, entity work to the
+ * entity's scheduler and block work to the region that owns the location.
+ * Every task in the plugin goes through this instead of Bukkit.getScheduler().
+ */
+public interface TaskScheduler {
+
+    /** Handle for a scheduled task. */
+    interface Task {
+        void cancel();
+    }
+
+    /** Repeating work not tied to an entity or location (clock, tickers). */
+    Task runTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /** One-off work not tied to an entity or location, [delayTicks] from now. */
+    Task runLater(Runnable task, long delayTicks);
+
+    /** Run on the next tick, not tied to an entity or location. */
+    void run(Runnable task);
+
+    void runAsync(Runnable task);
+
+    /** Run on the thread that owns [location] - immediately if already on it. */
+    void runAt(Location location, Runnable task);
+
+    /** Run on the thread that owns [entity] - immediately if already on it. Dropped if the entity is gone. */
+    default void runFor(Entity entity, Runnable task) {
+        runFor(entity, task, null);
+    }
+
+    /** Like runFor, but [retired] runs instead (on any thread) if the entity is removed before [task] can. */
+    void runFor(Entity entity, Runnable task, Runnable retired);
+
+    /** Repeating work that follows [entity] between regions; stops when the entity is removed. */
+    Task runTimerFor(Entity entity, Runnable task, long delayTicks, long periodTicks);
+
+    /** True on Folia: there is no single main thread. */
+    boolean isRegionized();
+
+    static TaskScheduler create(Plugin plugin) {
+        return FoliaTaskScheduler.isFolia() ? new FoliaTaskScheduler(plugin) : new BukkitTaskScheduler(plugin);
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+import com.destroystokyo.paper.event.server.ServerTickStartEvent;
+import io.github.shortvincentman.mcroguelite.config.PluginSettings;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.ArrayDeque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-tick execution budget for the plugin's own work.
+ *
+ * The plugin's tick tasks charge the time they spend. Gameplay steps (damage,
+ * velocity, mana) always run; cosmetic steps (particles, ambient sounds) ask
+ * first and are skipped once the tick's budget is used up. One-off cosmetic
+ * bursts can instead be deferred to a later tick with headroom. When the
+ * server's average MSPT reaches the yield threshold, cosmetic work stops
+ * entirely until it recovers, so the plugin doesn't push ticks past 50ms.
+ * Main thread only.
+ *
+ * On Folia each region ticks on its own and there is no single tick to
+ * budget, so the budget stands aside: cosmetic work always runs inline and
+ * nothing is charged.
+ */
+public class TickBudget implements Listener {
+
+    // Ticks of usage kept for /mcroguelite budget
+    private static final int HISTORY = 100;
+    private static final int MAX_DEFERRED = 512;
+    // A burst shown later than this is just noise - drop it instead
+    private static final long MAX_DEFER_AGE = 5;
+
+    private record Deferred(long tick, Runnable task) {
+    }
+
+    private final TickClock clock;
+    private final Logger logger;
+    private final boolean regionized;
+
+    private long budgetNanos;
+    private double yieldMspt;
+
+    // Current tick
+    private long usedNanos;
+    private boolean yielding;
+    private double lastMspt;
+
+    private final long[] history = new long[HISTORY];
+    private int historyIndex;
+    private final ArrayDeque<Deferred> deferred = new ArrayDeque<>();
+    private long skippedCount;
+    private long deferredCount;
+    private long droppedCount;
+    private long overBudgetTicks;
+
+    public TickBudget(TaskScheduler scheduler, TickClock clock, PluginSettings settings, Logger logger) {
+        this.clock = clock;
+        this.logger = logger;
+        this.regionized = scheduler.isRegionized();
+        applySettings(settings);
+    }
+
+    public void applySettings(PluginSettings settings) {
+        this.budgetNanos = settings.tickBudgetNanos();
+        this.yieldMspt = settings.yieldMspt();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickStart(ServerTickStartEvent event) {
+        if (regionized) return;
+        beginTick();
+    }
+
+    /** Close out the previous tick's usage and run deferred work that fits. */
+    private void beginTick() {
+        history[historyIndex] = usedNanos;
+        historyIndex = (historyIndex + 1) % HISTORY;
+        if (usedNanos > budgetNanos) overBudgetTicks++;
+        usedNanos = 0;
+
+        // Sampled once per tick; Paper averages it over the last 100 ticks
+        lastMspt = Bukkit.getAverageTickTime();
+        yielding = lastMspt >= yieldMspt;
+
+        drainDeferred();
+    }
+
+    private void drainDeferred() {
+        if (deferred.isEmpty()) return;
+        long now = clock.now();
+        // Leave at least half the tick's budget for this tick's own work
+        long limit = budgetNanos / 2;
+        while (!deferred.isEmpty()) {
+            if (yielding) {
+                droppedCount += deferred.size();
+                deferred.clear();
+                return;
+            }
+            if (usedNanos >= limit) return;
+            Deferred next = deferred.poll();
+            if (now - next.tick() > MAX_DEFER_AGE) {
+                droppedCount++;
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                next.task().run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Deferred cosmetic task failed", e);
+            }
+            usedNanos += System.nanoTime() - start;
+        }
+    }
+
+    // -------- Charging --------
+
+    /** Record [nanos] of plugin work in the current tick. */
+    public void charge(long nanos) {
+        if (regionized) return;
+        usedNanos += nanos;
+    }
+
+    public boolean hasHeadroom() {
+        return regionized || usedNanos < budgetNanos;
+    }
+
+    // -------- Cosmetic Work --------
+
+    /**
+     * Whether a cosmetic step should run now. Use for per-tick trails, where a
+     * skipped frame is invisible and a late one is pointless.
+     */
+    public boolean allowCosmetic() {
+        if (regionized) return true;
+        if (!yielding && usedNanos < budgetNanos) return true;
+        skippedCount++;
+        return false;
+    }
+
+    /**
+     * Run a one-off cosmetic burst now if there is room, otherwise on one of
+     * the next few ticks. Dropped if the server is yielding or it waits too long.
+     */
+    public void cosmetic(Runnable task) {
+        if (regionized) {
+            task.run();
+            return;
+        }
+        if (yielding) {
+            droppedCount++;
+            return;
+        }
+        if (usedNanos < budgetNanos && deferred.isEmpty()) {
+            // The caller's own accounting covers inline work
+            task.run();
+            return;
+        }
+        if (deferred.size() >= MAX_DEFERRED) {
+            deferred.poll();
+            droppedCount++;
+        }
+        deferred.add(new Deferred(clock.now(), task));
+        deferredCount++;
+    }
+
+    // -------- Reporting --------
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /** Time charged in the last completed tick. */
+    public long getLastTickNanos() {
+        return history[(historyIndex + HISTORY - 1) % HISTORY];
+    }
+
+    public long getAverageNanos() {
+        long total = 0;
+        for (long used : history) total += used;
+        return total / HISTORY;
+    }
+
+    public long getMaxNanos() {
+        long max = 0;
+        for (long used : history) max = Math.max(max, used);
+        return max;
+    }
+
+    public double getLastMspt() {
+        return lastMspt;
+    }
+
+    /** False on Folia, where the budget stands aside. */
+    public boolean isActive() {
+        return !regionized;
+    }
+
+    public boolean isYielding() {
+        return yielding;
+    }
+
+    public long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getDeferredCount() {
+        return deferredCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public int getQueuedCount() {
+        return deferred.size();
+    }
+}
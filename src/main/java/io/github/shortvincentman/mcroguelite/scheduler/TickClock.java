@@ -0,0 +1,62 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+/**
+ * Monotonic server-tick clock shared by every timed mechanic.
+ * Advances by one each server tick, so cooldowns and expiries stored as tick
+ * deadlines stay in step with gameplay when the server lags instead of
+ * drifting with wall-clock time. Reading it is a field read - no syscall.
+ * On Folia it advances on the global region and is read from every region.
+ */
+public class TickClock implements Runnable {
+
+    public static final long MS_PER_TICK = 50L;
+
+    private volatile long tick;
+    private TaskScheduler.Task task;
+
+    /**
+     * Start counting. Call this before scheduling any other repeating task so
+     * the clock advances first within each tick.
+     */
+    public void start(TaskScheduler scheduler) {
+        if (task != null) return;
+        task = scheduler.runTimer(this, 0L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        tick++;
+    }
+
+    /** Current server tick since the plugin enabled. */
+    public long now() {
+        return tick;
+    }
+
+    /** Tick deadline [ticks] from now. */
+    public long after(long ticks) {
+        return tick + ticks;
+    }
+
+    /** Tick deadline [ms] of game time from now (rounded up to whole ticks). */
+    public long afterMs(long ms) {
+        return tick + msToTicks(ms);
+    }
+
+    public boolean hasPassed(long deadline) {
+        return tick >= deadline;
+    }
+
+    /** Convert a duration in milliseconds to server ticks, rounding up. */
+    public static long msToTicks(long ms) {
+        if (ms <= 0) return 0;
+        return (ms + MS_PER_TICK - 1) / MS_PER_TICK;
+    }
+}
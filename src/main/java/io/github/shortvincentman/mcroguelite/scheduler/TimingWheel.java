@@ -0,0 +1,283 @@
+package io.github.shortvincentman.mcroguelite.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hierarchical timing wheel for one-shot delayed callbacks (block cleanups,
+ * mark expiry, title resets). All of them share one repeating task instead of
+ * one Bukkit task each.
+ *
+ * Four levels of 64 slots: level 0 holds callbacks due within 64 ticks, level 1
+ * within 64^2, and so on up to ~9.7 days. Higher slots cascade down when the
+ * lower wheel wraps. Slots are intrusive doubly linked lists, so scheduling
+ * and cancelling are O(1). Each callback can carry an owner key (a player,
+ * world or chunk) for bulk cancellation.
+ *
+ * The wheel itself ticks on the global thread and is synchronized, so any
+ * region may schedule. Callbacks that touch blocks or entities must use
+ * scheduleAt/scheduleFor, which hand the callback to the owning region.
+ */
+public class TimingWheel implements Runnable {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // Longest delay the wheel can hold; anything longer is clamped
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /** Handle for a scheduled callback. */
+    public static final class Timer {
+        private final Runnable task;
+        private final Object owner;
+        private final long deadline;
+
+        // Slot list
+        private Timer prev;
+        private Timer next;
+        private int level = -1;
+        private int slot;
+
+        // Owner list
+        private Timer ownerPrev;
+        private Timer ownerNext;
+
+        private Timer(Runnable task, Object owner, long deadline) {
+            this.task = task;
+            this.owner = owner;
+            this.deadline = deadline;
+        }
+
+        public boolean isPending() {
+            return level >= 0;
+        }
+
+        public Object getOwner() {
+            return owner;
+        }
+    }
+
+    private final TaskScheduler scheduler;
+    private final Logger logger;
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    // Head of each owner's list of pending timers
+    private final Map<Object, Timer> byOwner = new HashMap<>();
+    private long now;
+    private int pending;
+    private TaskScheduler.Task task;
+
+    public TimingWheel(TaskScheduler scheduler, Logger logger) {
+        this.scheduler = scheduler;
+        this.logger = logger;
+    }
+
+    public synchronized void start() {
+        if (task != null) return;
+        task = scheduler.runTimer(this, 1L, 1L);
+    }
+
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    // -------- Scheduling --------
+
+    /** Run [callback] once, [delayTicks] ticks from now (at least next tick). */
+    public Timer schedule(long delayTicks, Runnable callback) {
+        return schedule(delayTicks, null, callback);
+    }
+
+    /** Run [callback] once after [delayTicks], tagged with [owner] for cancelAll(owner). */
+    public synchronized Timer schedule(long delayTicks, Object owner, Runnable callback) {
+        long delay = Math.min(Math.max(1L, delayTicks), MAX_DELAY);
+        Timer timer = new Timer(callback, owner, now + delay);
+        insert(timer);
+        if (owner != null) {
+            Timer head = byOwner.put(owner, timer);
+            if (head != null) {
+                timer.ownerNext = head;
+                head.ownerPrev = timer;
+            }
+        }
+        pending++;
+        return timer;
+    }
+
+    /** Like schedule, but [callback] runs on the region that owns [location] (block changes). */
+    public Timer scheduleAt(long delayTicks, Location location, Object owner, Runnable callback) {
+        Location at = location.clone();
+        return schedule(delayTicks, owner, () -> scheduler.runAt(at, callback));
+    }
+
+    /** Like schedule, but [callback] runs on [entity]'s thread; owned by the entity. Dropped if it is gone. */
+    public Timer scheduleFor(long delayTicks, Entity entity, Runnable callback) {
+        return schedule(delayTicks, entity.getUniqueId(), () -> scheduler.runFor(entity, callback));
+    }
+
+    /** Cancel one callback. Returns false if it already ran or was cancelled. */
+    public synchronized boolean cancel(Timer timer) {
+        if (!timer.isPending()) return false;
+        unlink(timer);
+        unlinkOwner(timer);
+        pending--;
+        return true;
+    }
+
+    /** Cancel every pending callback tagged with [owner]. Returns how many. */
+    public synchronized int cancelAll(Object owner) {
+        int cancelled = 0;
+        Timer timer = byOwner.remove(owner);
+        while (timer != null) {
+            Timer next = timer.ownerNext;
+            timer.ownerPrev = null;
+            timer.ownerNext = null;
+            unlink(timer);
+            pending--;
+            cancelled++;
+            timer = next;
+        }
+        return cancelled;
+    }
+
+    /** Drop every pending callback without running it. */
+    public synchronized void cancelAll() {
+        for (Timer[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timer timer = level[i];
+                level[i] = null;
+                while (timer != null) {
+                    Timer next = timer.next;
+                    timer.prev = null;
+                    timer.next = null;
+                    timer.ownerPrev = null;
+                    timer.ownerNext = null;
+                    timer.level = -1;
+                    timer = next;
+                }
+            }
+        }
+        byOwner.clear();
+        pending = 0;
+    }
+
+    /**
+     * Run every pending callback now, in no particular order, and empty the
+     * wheel. Used on disable so spell blocks are cleaned up instead of being
+     * left in the world when the server stops.
+     */
+    public synchronized void runAll() {
+        for (Timer[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timer timer = level[i];
+                level[i] = null;
+                fireList(timer);
+            }
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    // -------- Tick --------
+
+    @Override
+    public synchronized void run() {
+        now++;
+        // Cascade from the top: a wrapped lower wheel pulls in the next slot above it
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int shift = SLOT_BITS * level;
+            if ((now & ((1L << shift) - 1)) == 0) {
+                int index = (int) ((now >>> shift) & SLOT_MASK);
+                Timer timer = slots[level][index];
+                slots[level][index] = null;
+                while (timer != null) {
+                    Timer next = timer.next;
+                    timer.prev = null;
+                    timer.next = null;
+                    insert(timer);
+                    timer = next;
+                }
+            }
+        }
+
+        int index = (int) (now & SLOT_MASK);
+        Timer due = slots[0][index];
+        slots[0][index] = null;
+        fireList(due);
+    }
+
+    private void fireList(Timer timer) {
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            timer.level = -1;
+            unlinkOwner(timer);
+            pending--;
+            try {
+                timer.task.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Delayed callback failed", e);
+            }
+            timer = next;
+        }
+    }
+
+    // -------- Lists --------
+
+    private void insert(Timer timer) {
+        long delta = timer.deadline - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timer.level = level;
+        timer.slot = index;
+        Timer head = slots[level][index];
+        timer.next = head;
+        if (head != null) head.prev = timer;
+        slots[level][index] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    private void unlinkOwner(Timer timer) {
+        if (timer.owner == null) return;
+        if (timer.ownerPrev != null) {
+            timer.ownerPrev.ownerNext = timer.ownerNext;
+        } else if (timer.ownerNext != null) {
+            byOwner.put(timer.owner, timer.ownerNext);
+        } else {
+            byOwner.remove(timer.owner, timer);
+        }
+        if (timer.ownerNext != null) timer.ownerNext.ownerPrev = timer.ownerPrev;
+        timer.ownerPrev = null;
+        timer.ownerNext = null;
+    }
+
+    /** Owner key for everything tied to one chunk (combine with the world if several worlds matter). */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
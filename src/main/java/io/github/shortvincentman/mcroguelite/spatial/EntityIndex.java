@@ -0,0 +1,396 @@
+package io.github.shortvincentman.mcroguelite.spatial;
+
+import io.github.shortvincentman.mcroguelite.scheduler.TaskScheduler;
+import io.github.shortvincentman.mcroguelite.scheduler.TickClock;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Chunk-bucketed index of living entities for spell target queries.
+ *
+ * Buckets are filled lazily, one chunk at a time: the first query of a tick
+ * that touches a chunk reads that chunk's entities and records each living
+ * one's position and size; later queries that tick reuse the bucket. Only the
+ * chunks a query's area overlaps are ever read, so a fireball or trap testing
+ * for hits every tick costs the handful of entities near it, never a pass
+ * over every mob in the world. Unloaded chunks are skipped, never loaded.
+ * Positions are as of the bucket's fill, at most one tick old.
+ *
+ * On Folia queries go straight to the region-local getNearbyLivingEntities
+ * and apply the same exact tests. Main thread only otherwise.
+ */
+public class EntityIndex implements Listener {
+
+    // Entities are bucketed by the chunk their feet are in; widen bucket scans by
+    // this much so wide entities standing across a border are still seen
+    private static final double BUCKET_MARGIN = 2.0;
+
+    // Buckets not queried in the current tick are dropped once a world holds more than this
+    private static final int SWEEP_SIZE = 1024;
+
+    // Per entry: x, y, z (feet), half width, height
+    private static final int STRIDE = 5;
+
+    private static final class Bucket {
+        long builtTick = -1;
+        LivingEntity[] entities = new LivingEntity[8];
+        double[] data = new double[8 * STRIDE];
+        int size;
+
+        void add(LivingEntity entity, double x, double y, double z, double halfWidth, double height) {
+            if (size == entities.length) {
+                entities = Arrays.copyOf(entities, size * 2);
+                data = Arrays.copyOf(data, size * 2 * STRIDE);
+            }
+            int i = size * STRIDE;
+            entities[size++] = entity;
+            data[i] = x;
+            data[i + 1] = y;
+            data[i + 2] = z;
+            data[i + 3] = halfWidth;
+            data[i + 4] = height;
+        }
+
+        void clear() {
+            Arrays.fill(entities, 0, size, null);
+            size = 0;
+        }
+    }
+
+    private static final class WorldIndex {
+        final Map<Long, Bucket> buckets = new HashMap<>();
+    }
+
+    /** An entity a ray hit and how far along the ray it entered its box. */
+    public record RayHit(LivingEntity entity, double distance) {
+    }
+
+    /** Receives each candidate with its position and size. */
+    @FunctionalInterface
+    private interface Visitor {
+        void visit(LivingEntity entity, double x, double y, double z, double halfWidth, double height);
+    }
+
+    private final TaskScheduler scheduler;
+    private final TickClock clock;
+    private final Map<UUID, WorldIndex> worlds = new HashMap<>();
+    // Reused for position reads while filling a bucket
+    private final Location scratch = new Location(null, 0, 0, 0);
+
+    public EntityIndex(TaskScheduler scheduler, TickClock clock) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+    }
+
+    // -------- Queries --------
+
+    /** Living entities whose feet are within [radius] of [center]. */
+    public List<LivingEntity> inRadius(Location center, double radius, Entity exclude) {
+        List<LivingEntity> found = new ArrayList<>();
+        double cx = center.getX();
+        double cy = center.getY();
+        double cz = center.getZ();
+        double r2 = radius * radius;
+        scan(center.getWorld(), cx - radius, cy - radius, cz - radius, cx + radius, cy + radius, cz + radius,
+                (entity, x, y, z, halfWidth, height) -> {
+                    double dx = x - cx;
+                    double dy = y - cy;
+                    double dz = z - cz;
+                    if (dx * dx + dy * dy + dz * dz <= r2 && accept(entity, exclude)) found.add(entity);
+                });
+        return found;
+    }
+
+    /** The living entity whose feet are closest to [center], within [radius]; null if none. */
+    public LivingEntity nearest(Location center, double radius, Entity exclude) {
+        double cx = center.getX();
+        double cy = center.getY();
+        double cz = center.getZ();
+        double[] best = {radius * radius};
+        LivingEntity[] nearest = new LivingEntity[1];
+        scan(center.getWorld(), cx - radius, cy - radius, cz - radius, cx + radius, cy + radius, cz + radius,
+                (entity, x, y, z, halfWidth, height) -> {
+                    double dx = x - cx;
+                    double dy = y - cy;
+                    double dz = z - cz;
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    if (d2 <= best[0] && accept(entity, exclude)) {
+                        best[0] = d2;
+                        nearest[0] = entity;
+                    }
+                });
+        return nearest[0];
+    }
+
+    /**
+     * Living entities whose bounding box overlaps the box [halfX]/[halfY]/[halfZ]
+     * around [center] - the same test as World.getNearbyEntities.
+     */
+    public List<LivingEntity> inBox(Location center, double halfX, double halfY, double halfZ, Entity exclude) {
+        List<LivingEntity> found = new ArrayList<>();
+        double minX = center.getX() - halfX;
+        double minY = center.getY() - halfY;
+        double minZ = center.getZ() - halfZ;
+        double maxX = center.getX() + halfX;
+        double maxY = center.getY() + halfY;
+        double maxZ = center.getZ() + halfZ;
+        scan(center.getWorld(), minX, minY, minZ, maxX, maxY, maxZ,
+                (entity, x, y, z, halfWidth, height) -> {
+                    if (x + halfWidth < minX || x - halfWidth > maxX) return;
+                    if (z + halfWidth < minZ || z - halfWidth > maxZ) return;
+                    if (y + height < minY || y > maxY) return;
+                    if (accept(entity, exclude)) found.add(entity);
+                });
+        return found;
+    }
+
+    /**
+     * Living entities whose feet are within [range] of [apex] and no more than
+     * acos([cosHalfAngle]) off [direction] as seen from the apex.
+     */
+    public List<LivingEntity> inCone(Location apex, Vector direction, double range, double cosHalfAngle, Entity exclude) {
+        List<LivingEntity> found = new ArrayList<>();
+        Vector dir = direction.clone().normalize();
+        double ax = apex.getX();
+        double ay = apex.getY();
+        double az = apex.getZ();
+        double r2 = range * range;
+        scan(apex.getWorld(), ax - range, ay - range, az - range, ax + range, ay + range, az + range,
+                (entity, x, y, z, halfWidth, height) -> {
+                    double dx = x - ax;
+                    double dy = y - ay;
+                    double dz = z - az;
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    if (d2 > r2) return;
+                    // cos(angle) >= cosHalfAngle, without the square root unless needed
+                    double dot = dx * dir.getX() + dy * dir.getY() + dz * dir.getZ();
+                    if (d2 > 0 && dot < cosHalfAngle * Math.sqrt(d2)) return;
+                    if (accept(entity, exclude)) found.add(entity);
+                });
+        return found;
+    }
+
+    /**
+     * Living entities that reach into a solid cone from [apex] along
+     * [direction], [range] blocks long, whose radius grows by [slope] per block
+     * and is widened by [margin]. Unlike the feet-only cone above this tests
+     * each entity's vertical axis and width, so a tall mob below the cone's
+     * axis is still caught. Each entity is returned at most once.
+     */
+    public List<LivingEntity> inCone(Location apex, Vector direction, double range, double slope, double margin, Entity exclude) {
+        List<LivingEntity> found = new ArrayList<>();
+        Vector dir = direction.clone().normalize();
+        double dx = dir.getX();
+        double dy = dir.getY();
+        double dz = dir.getZ();
+        double ax = apex.getX();
+        double ay = apex.getY();
+        double az = apex.getZ();
+
+        // One broad-phase box around the whole cone: the apex plus the end cap disc
+        double cap = range * slope + margin;
+        double ex = ax + dx * range;
+        double ey = ay + dy * range;
+        double ez = az + dz * range;
+        double rx = cap * Math.sqrt(Math.max(0, 1 - dx * dx));
+        double ry = cap * Math.sqrt(Math.max(0, 1 - dy * dy));
+        double rz = cap * Math.sqrt(Math.max(0, 1 - dz * dz));
+        // 1 - dy^2 is how far a vertical segment can move off the axis
+        double upPerp2 = 1 - dy * dy;
+        scan(apex.getWorld(),
+                Math.min(ax - margin, ex - rx), Math.min(ay - margin, ey - ry), Math.min(az - margin, ez - rz),
+                Math.max(ax + margin, ex + rx), Math.max(ay + margin, ey + ry), Math.max(az + margin, ez + rz),
+                (entity, x, y, z, halfWidth, height) -> {
+                    double wx = x - ax;
+                    double wy = y - ay;
+                    double wz = z - az;
+                    // Point on the entity's vertical axis closest to the cone's axis
+                    double s;
+                    if (upPerp2 < 1e-9) {
+                        s = height / 2;
+                    } else {
+                        double along = wx * dx + wy * dy + wz * dz;
+                        s = -(wy - along * dy) / upPerp2;
+                        s = Math.max(0, Math.min(height, s));
+                    }
+                    wy += s;
+                    double t = wx * dx + wy * dy + wz * dz;
+                    if (t < -margin || t > range + margin) return;
+                    double reach = Math.max(t, 0) * slope + margin + halfWidth;
+                    double perp2 = wx * wx + wy * wy + wz * wz - t * t;
+                    if (perp2 > reach * reach) return;
+                    if (accept(entity, exclude)) found.add(entity);
+                });
+        return found;
+    }
+
+    /**
+     * First living entity a ray from [origin] passes through within
+     * [maxDistance], testing bounding boxes grown by [margin] - a swept sphere
+     * of radius [margin]. Null if none.
+     */
+    public RayHit rayCast(Location origin, Vector direction, double maxDistance, double margin, Entity exclude) {
+        Vector dir = direction.clone().normalize();
+        double ox = origin.getX();
+        double oy = origin.getY();
+        double oz = origin.getZ();
+        double ex = ox + dir.getX() * maxDistance;
+        double ey = oy + dir.getY() * maxDistance;
+        double ez = oz + dir.getZ() * maxDistance;
+        double[] best = {maxDistance};
+        LivingEntity[] first = new LivingEntity[1];
+        scan(origin.getWorld(),
+                Math.min(ox, ex) - margin, Math.min(oy, ey) - margin, Math.min(oz, ez) - margin,
+                Math.max(ox, ex) + margin, Math.max(oy, ey) + margin, Math.max(oz, ez) + margin,
+                (entity, x, y, z, halfWidth, height) -> {
+                    double t = intersect(ox, oy, oz, dir,
+                            x - halfWidth - margin, y - margin, z - halfWidth - margin,
+                            x + halfWidth + margin, y + height + margin, z + halfWidth + margin);
+                    if (t >= 0 && t <= best[0] && accept(entity, exclude)) {
+                        best[0] = t;
+                        first[0] = entity;
+                    }
+                });
+        return first[0] != null ? new RayHit(first[0], best[0]) : null;
+    }
+
+    /** Distance along the ray to where it enters the box (0 if it starts inside), or -1 if it misses. */
+    private static double intersect(double ox, double oy, double oz, Vector dir,
+                            double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double tMin = 0;
+        double tMax = Double.POSITIVE_INFINITY;
+
+        // Slab test, one axis at a time; a ray parallel to a slab is inside it or never
+        double dx = dir.getX();
+        if (Math.abs(dx) < 1e-9) {
+            if (ox < minX || ox > maxX) return -1;
+        } else {
+            double t1 = (minX - ox) / dx;
+            double t2 = (maxX - ox) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        double dy = dir.getY();
+        if (Math.abs(dy) < 1e-9) {
+            if (oy < minY || oy > maxY) return -1;
+        } else {
+            double t1 = (minY - oy) / dy;
+            double t2 = (maxY - oy) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        double dz = dir.getZ();
+        if (Math.abs(dz) < 1e-9) {
+            if (oz < minZ || oz > maxZ) return -1;
+        } else {
+            double t1 = (minZ - oz) / dz;
+            double t2 = (maxZ - oz) / dz;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax ? tMin : -1;
+    }
+
+    private static boolean accept(LivingEntity entity, Entity exclude) {
+        // The index can be up to a tick old - skip anything that died or left since
+        return entity != exclude && entity.isValid();
+    }
+
+    // -------- Index --------
+
+    private void scan(World world, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Visitor visitor) {
+        if (scheduler.isRegionized()) {
+            scanLive(world, minX, minY, minZ, maxX, maxY, maxZ, visitor);
+            return;
+        }
+        WorldIndex index = index(world);
+        int minCx = (int) Math.floor(minX - BUCKET_MARGIN) >> 4;
+        int minCz = (int) Math.floor(minZ - BUCKET_MARGIN) >> 4;
+        int maxCx = (int) Math.floor(maxX + BUCKET_MARGIN) >> 4;
+        int maxCz = (int) Math.floor(maxZ + BUCKET_MARGIN) >> 4;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                Bucket bucket = bucket(world, index, cx, cz);
+                if (bucket == null || bucket.size == 0) continue;
+                double[] data = bucket.data;
+                for (int e = 0; e < bucket.size; e++) {
+                    int i = e * STRIDE;
+                    double y = data[i + 1];
+                    // Cheap vertical reject before the exact test
+                    if (y + data[i + 4] < minY - BUCKET_MARGIN || y > maxY + BUCKET_MARGIN) continue;
+                    visitor.visit(bucket.entities[e], data[i], y, data[i + 2], data[i + 3], data[i + 4]);
+                }
+            }
+        }
+    }
+
+    private void scanLive(World world, double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Visitor visitor) {
+        Location center = new Location(world, (minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2);
+        Location position = new Location(world, 0, 0, 0);
+        for (LivingEntity entity : world.getNearbyLivingEntities(center,
+                (maxX - minX) / 2 + BUCKET_MARGIN, (maxY - minY) / 2 + BUCKET_MARGIN, (maxZ - minZ) / 2 + BUCKET_MARGIN)) {
+            entity.getLocation(position);
+            visitor.visit(entity, position.getX(), position.getY(), position.getZ(), entity.getWidth() / 2, entity.getHeight());
+        }
+    }
+
+    private WorldIndex index(World world) {
+        WorldIndex index = worlds.computeIfAbsent(world.getUID(), k -> new WorldIndex());
+        if (index.buckets.size() > SWEEP_SIZE) {
+            // Drop buckets nobody has queried this tick, so the map follows the fighting
+            long now = clock.now();
+            index.buckets.values().removeIf(bucket -> bucket.builtTick != now);
+        }
+        return index;
+    }
+
+    /** The chunk's bucket as of this tick, filled on first use; null if the chunk isn't loaded. */
+    private Bucket bucket(World world, WorldIndex index, int cx, int cz) {
+        long key = chunkKey(cx, cz);
+        long now = clock.now();
+        Bucket bucket = index.buckets.get(key);
+        if (bucket != null && bucket.builtTick == now) return bucket;
+        // Never load a chunk just to look for targets
+        if (!world.isChunkLoaded(cx, cz)) return null;
+        if (bucket == null) {
+            bucket = new Bucket();
+            index.buckets.put(key, bucket);
+        }
+        fill(world.getChunkAt(cx, cz), bucket);
+        bucket.builtTick = now;
+        return bucket;
+    }
+
+    private void fill(Chunk chunk, Bucket bucket) {
+        bucket.clear();
+        for (Entity entity : chunk.getEntities()) {
+            if (!(entity instanceof LivingEntity living)) continue;
+            living.getLocation(scratch);
+            bucket.add(living, scratch.getX(), scratch.getY(), scratch.getZ(), living.getWidth() / 2, living.getHeight());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getUID());
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
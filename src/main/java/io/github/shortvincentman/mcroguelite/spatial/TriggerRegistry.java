@@ -0,0 +1,269 @@
+package io.github.shortvincentman.mcroguelite.spatial;
+
+import io.github.shortvincentman.mcroguelite.scheduler.TaskScheduler;
+import io.github.shortvincentman.mcroguelite.scheduler.TickBudget;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.util.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Trigger volumes (traps) that fire once when a living entity walks into them.
+ *
+ * Triggers are grouped into zones by the chunk their center is in. Once per
+ * tick each zone makes a single EntityIndex query over the box covering all
+ * of its triggers, and only the entities that come back are tested against
+ * the individual triggers. The index only reads the few chunks that box
+ * overlaps, so a zone nobody is near costs a look at those chunks' entities,
+ * and the work follows the number of entities near traps rather than traps
+ * times ticks or the size of the world.
+ *
+ * On Folia each zone is checked on the region that owns it.
+ */
+public class TriggerRegistry implements Runnable, Listener {
+
+    /** A registered volume. Fires at most once, then removes itself. */
+    public final class Trigger {
+        private final Zone zone;
+        private final BoundingBox box;
+        private final Entity exclude;
+        private final Consumer<LivingEntity> action;
+        private volatile boolean removed;
+
+        private Trigger(Zone zone, BoundingBox box, Entity exclude, Consumer<LivingEntity> action) {
+            this.zone = zone;
+            this.box = box;
+            this.exclude = exclude;
+            this.action = action;
+        }
+
+        /** Stop watching the volume. Safe to call more than once. */
+        public void remove() {
+            TriggerRegistry.this.remove(this);
+        }
+
+        public boolean isActive() {
+            return !removed;
+        }
+    }
+
+    private record ZoneKey(UUID world, long chunk) {
+    }
+
+    private static final class Zone {
+        final ZoneKey key;
+        final World world;
+        // Copy-on-write so checks read it without the lock
+        volatile Trigger[] triggers = new Trigger[0];
+        // Union of the triggers' boxes; recomputed when they change
+        volatile BoundingBox area;
+        // Folia: a check has been handed to the zone's region and hasn't finished yet
+        volatile boolean inFlight;
+
+        Zone(ZoneKey key, World world) {
+            this.key = key;
+            this.world = world;
+        }
+    }
+
+    private final TaskScheduler scheduler;
+    private final TickBudget budget;
+    private final EntityIndex entities;
+    private final Logger logger;
+
+    // Guarded by itself; triggers are added from whichever region casts them
+    private final Map<ZoneKey, Zone> zones = new HashMap<>();
+    private TaskScheduler.Task task;
+
+    public TriggerRegistry(TaskScheduler scheduler, TickBudget budget, EntityIndex entities, Logger logger) {
+        this.scheduler = scheduler;
+        this.budget = budget;
+        this.entities = entities;
+        this.logger = logger;
+    }
+
+    public void start() {
+        if (task != null) return;
+        task = scheduler.runTimer(this, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        synchronized (zones) {
+            for (Zone zone : zones.values()) {
+                for (Trigger trigger : zone.triggers) {
+                    trigger.removed = true;
+                }
+            }
+            zones.clear();
+        }
+    }
+
+    // -------- Triggers --------
+
+    /**
+     * Watch the box [halfX]/[halfY]/[halfZ] around [center]. The first living
+     * entity other than [exclude] whose bounding box overlaps it is passed to
+     * [action], on the thread that owns the location, and the trigger is removed.
+     */
+    public Trigger add(Location center, double halfX, double halfY, double halfZ, Entity exclude, Consumer<LivingEntity> action) {
+        World world = center.getWorld();
+        BoundingBox box = new BoundingBox(
+                center.getX() - halfX, center.getY() - halfY, center.getZ() - halfZ,
+                center.getX() + halfX, center.getY() + halfY, center.getZ() + halfZ);
+        ZoneKey key = new ZoneKey(world.getUID(), chunkKey(center.getBlockX() >> 4, center.getBlockZ() >> 4));
+        synchronized (zones) {
+            Zone zone = zones.computeIfAbsent(key, k -> new Zone(k, world));
+            Trigger trigger = new Trigger(zone, box, exclude, action);
+            Trigger[] grown = Arrays.copyOf(zone.triggers, zone.triggers.length + 1);
+            grown[grown.length - 1] = trigger;
+            setTriggers(zone, grown);
+            return trigger;
+        }
+    }
+
+    private void remove(Trigger trigger) {
+        synchronized (zones) {
+            if (trigger.removed) return;
+            trigger.removed = true;
+            Zone zone = trigger.zone;
+            List<Trigger> kept = new ArrayList<>(zone.triggers.length);
+            for (Trigger other : zone.triggers) {
+                if (other != trigger) kept.add(other);
+            }
+            if (kept.isEmpty()) {
+                zones.remove(zone.key, zone);
+            }
+            setTriggers(zone, kept.toArray(new Trigger[0]));
+        }
+    }
+
+    private static void setTriggers(Zone zone, Trigger[] triggers) {
+        BoundingBox area = null;
+        for (Trigger trigger : triggers) {
+            area = area == null ? trigger.box.clone() : area.union(trigger.box);
+        }
+        zone.area = area;
+        zone.triggers = triggers;
+    }
+
+    // -------- Tick --------
+
+    @Override
+    public void run() {
+        List<Zone> due;
+        synchronized (zones) {
+            if (zones.isEmpty()) return;
+            due = new ArrayList<>(zones.values());
+        }
+        if (scheduler.isRegionized()) {
+            for (Zone zone : due) {
+                dispatch(zone);
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        for (Zone zone : due) {
+            check(zone);
+        }
+        budget.charge(System.nanoTime() - start);
+    }
+
+    /** Folia: check the zone on the region that owns it. */
+    private void dispatch(Zone zone) {
+        if (zone.inFlight) return;
+        BoundingBox area = zone.area;
+        if (area == null) return;
+        zone.inFlight = true;
+        Location center = new Location(zone.world, area.getCenterX(), area.getCenterY(), area.getCenterZ());
+        scheduler.runAt(center, () -> {
+            try {
+                check(zone);
+            } finally {
+                zone.inFlight = false;
+            }
+        });
+    }
+
+    private void check(Zone zone) {
+        Trigger[] triggers = zone.triggers;
+        BoundingBox area = zone.area;
+        if (triggers.length == 0 || area == null) return;
+
+        // One query for the whole zone
+        Location center = new Location(zone.world, area.getCenterX(), area.getCenterY(), area.getCenterZ());
+        List<LivingEntity> nearby = entities.inBox(center, area.getWidthX() / 2, area.getHeight() / 2, area.getWidthZ() / 2, null);
+        if (nearby.isEmpty()) return;
+
+        for (Trigger trigger : triggers) {
+            if (trigger.removed) continue;
+            for (LivingEntity entity : nearby) {
+                if (entity == trigger.exclude || !entity.getBoundingBox().overlaps(trigger.box)) continue;
+                remove(trigger);
+                fire(trigger, entity);
+                break;
+            }
+        }
+    }
+
+    private void fire(Trigger trigger, LivingEntity entity) {
+        try {
+            trigger.action.accept(entity);
+        } catch (RuntimeException e) {
+            // One broken trap must not take the others down with it
+            logger.log(Level.WARNING, "Trigger failed", e);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        UUID world = event.getWorld().getUID();
+        synchronized (zones) {
+            Iterator<Zone> it = zones.values().iterator();
+            while (it.hasNext()) {
+                Zone zone = it.next();
+                if (!zone.key.world().equals(world)) continue;
+                for (Trigger trigger : zone.triggers) {
+                    trigger.removed = true;
+                }
+                it.remove();
+            }
+        }
+    }
+
+    // -------- Introspection --------
+
+    /** Live triggers across all worlds. */
+    public int getTriggerCount() {
+        synchronized (zones) {
+            int count = 0;
+            for (Zone zone : zones.values()) {
+                count += zone.triggers.length;
+            }
+            return count;
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
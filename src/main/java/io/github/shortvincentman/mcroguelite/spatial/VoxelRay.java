@@ -0,0 +1,86 @@
+package io.github.shortvincentman.mcroguelite.spatial;
+
+import org.bukkit.block.BlockFace;
+import org.bukkit.util.Vector;
+
+/**
+ * Block-by-block ray walk (Amanatides-Woo voxel traversal). Visits every block
+ * the ray passes through, in order, so nothing thinner than a step is skipped.
+ * The caller decides per block whether the ray passes, hits, or has to stop
+ * (e.g. at the edge of what it is allowed to read).
+ */
+public final class VoxelRay {
+
+    public enum Verdict {
+        PASS,
+        HIT,
+        STOP
+    }
+
+    @FunctionalInterface
+    public interface Test {
+        Verdict test(int x, int y, int z);
+    }
+
+    /**
+     * Where the walk ended: the block, the face the ray entered it through
+     * (null for the starting block) and the distance along the ray to that face.
+     */
+    public record Result(Verdict verdict, int x, int y, int z, BlockFace face, double distance) {
+    }
+
+    private VoxelRay() {
+    }
+
+    /** Walk from [origin] along [direction] for [maxDistance]; null if every block passed. */
+    public static Result trace(Vector origin, Vector direction, double maxDistance, Test test) {
+        double length = direction.length();
+        if (length == 0) return null;
+        double dx = direction.getX() / length;
+        double dy = direction.getY() / length;
+        double dz = direction.getZ() / length;
+        double ox = origin.getX();
+        double oy = origin.getY();
+        double oz = origin.getZ();
+
+        int x = (int) Math.floor(ox);
+        int y = (int) Math.floor(oy);
+        int z = (int) Math.floor(oz);
+        int stepX = dx > 0 ? 1 : dx < 0 ? -1 : 0;
+        int stepY = dy > 0 ? 1 : dy < 0 ? -1 : 0;
+        int stepZ = dz > 0 ? 1 : dz < 0 ? -1 : 0;
+        double deltaX = stepX != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+        double deltaY = stepY != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+        double deltaZ = stepZ != 0 ? Math.abs(1.0 / dz) : Double.POSITIVE_INFINITY;
+        // Distance along the ray to the next boundary on each axis
+        double maxX = stepX > 0 ? (x + 1 - ox) * deltaX : stepX < 0 ? (ox - x) * deltaX : Double.POSITIVE_INFINITY;
+        double maxY = stepY > 0 ? (y + 1 - oy) * deltaY : stepY < 0 ? (oy - y) * deltaY : Double.POSITIVE_INFINITY;
+        double maxZ = stepZ > 0 ? (z + 1 - oz) * deltaZ : stepZ < 0 ? (oz - z) * deltaZ : Double.POSITIVE_INFINITY;
+
+        double t = 0;
+        BlockFace face = null;
+        while (t <= maxDistance) {
+            Verdict verdict = test.test(x, y, z);
+            if (verdict != Verdict.PASS) {
+                return new Result(verdict, x, y, z, face, t);
+            }
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX;
+                t = maxX;
+                maxX += deltaX;
+                face = stepX > 0 ? BlockFace.WEST : BlockFace.EAST;
+            } else if (maxY < maxZ) {
+                y += stepY;
+                t = maxY;
+                maxY += deltaY;
+                face = stepY > 0 ? BlockFace.DOWN : BlockFace.UP;
+            } else {
+                z += stepZ;
+                t = maxZ;
+                maxZ += deltaZ;
+                face = stepZ > 0 ? BlockFace.NORTH : BlockFace.SOUTH;
+            }
+        }
+        return null;
+    }
+}
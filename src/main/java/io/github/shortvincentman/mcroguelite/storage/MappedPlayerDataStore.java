@@ -0,0 +1,209 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Every player's mana data as a fixed-width record in one memory-mapped file.
+ * An in-memory UUID -> offset index is built once on open, so a load or save
+ * is a handful of field reads/writes into the mapping - no parsing and no
+ * per-player file open. The file grows by doubling and remapping.
+ *
+ * Layout: a 16 byte header (magic, version, record count, capacity) followed
+ * by 32 byte records:
+ *   0  long  uuid most significant bits
+ *   8  long  uuid least significant bits
+ *   16 int   fullChargeCount
+ *   20 byte  flags (see FLAG_*)
+ *   21       reserved (3 bytes), zero
+ *   24 int   climbUseCount
+ *   28 int   climbLevel (0 in records written before it existed = level 1)
+ */
+public class MappedPlayerDataStore implements PlayerDataStore {
+
+    private static final int MAGIC = 0x4D52504C; // "MRPL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 32;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int OFFSET_MSB = 0;
+    private static final int OFFSET_LSB = 8;
+    private static final int OFFSET_CHARGES = 16;
+    private static final int OFFSET_FLAGS = 20;
+    private static final int OFFSET_CLIMB_USES = 24;
+    private static final int OFFSET_CLIMB_LEVEL = 28;
+
+    private static final int FLAG_MANA_UNLOCKED = 1;
+    private static final int FLAG_RECEIVED_MESSAGE = 1 << 1;
+    private static final int FLAG_RUN_UNLOCKED = 1 << 2;
+    private static final int FLAG_CLIMB_UNLOCKED = 1 << 3;
+    private static final int FLAG_DASH_UNLOCKED = 1 << 4;
+
+    private final Logger logger;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+    // Player -> record index
+    private final Map<UUID, Integer> index = new HashMap<>();
+
+    /**
+     * Open (or create) the record file and index it.
+     * @throws IOException if the file can't be mapped or isn't a record file
+     */
+    public MappedPlayerDataStore(File file, Logger logger) throws IOException {
+        this.logger = logger;
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                map(INITIAL_CAPACITY);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, 0);
+                buffer.putInt(12, capacity);
+            } else {
+                openExisting();
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void openExisting() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("record file is truncated");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a player record file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported record file version " + buffer.getInt(4));
+        }
+        int storedCount = buffer.getInt(8);
+        int storedCapacity = buffer.getInt(12);
+        if (storedCount < 0 || storedCount > storedCapacity
+                || channel.size() < HEADER_SIZE + (long) storedCapacity * RECORD_SIZE) {
+            throw new IOException("record file header is corrupt");
+        }
+
+        map(storedCapacity);
+        count = storedCount;
+        for (int i = 0; i < count; i++) {
+            int base = recordBase(i);
+            index.put(new UUID(buffer.getLong(base + OFFSET_MSB), buffer.getLong(base + OFFSET_LSB)), i);
+        }
+    }
+
+    private void map(int newCapacity) throws IOException {
+        capacity = newCapacity;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+    }
+
+    private static int recordBase(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    @Override
+    public synchronized PlayerData load(UUID playerId) {
+        Integer record = index.get(playerId);
+        if (record == null) return null;
+
+        int base = recordBase(record);
+        int flags = buffer.get(base + OFFSET_FLAGS);
+        return new PlayerData(
+                playerId,
+                (flags & FLAG_MANA_UNLOCKED) != 0,
+                (flags & FLAG_RECEIVED_MESSAGE) != 0,
+                buffer.getInt(base + OFFSET_CHARGES),
+                (flags & FLAG_RUN_UNLOCKED) != 0,
+                (flags & FLAG_CLIMB_UNLOCKED) != 0,
+                (flags & FLAG_DASH_UNLOCKED) != 0,
+                Math.max(1, buffer.getInt(base + OFFSET_CLIMB_LEVEL)),
+                buffer.getInt(base + OFFSET_CLIMB_USES)
+        );
+    }
+
+    @Override
+    public void saveAll(Collection<PlayerData> batch) {
+        try {
+            writeAll(batch);
+        } catch (IOException e) {
+            logger.warning(e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void writeAll(Collection<PlayerData> batch) throws IOException {
+        if (batch.isEmpty()) return;
+        try {
+            for (PlayerData data : batch) {
+                writeRecord(data);
+            }
+            // Push the touched pages to disk once per batch
+            buffer.force();
+        } catch (IOException e) {
+            throw new IOException("Failed to save player data (" + batch.size() + " players): " + e.getMessage(), e);
+        }
+    }
+
+    private void writeRecord(PlayerData data) throws IOException {
+        Integer record = index.get(data.playerId());
+        boolean appended = record == null;
+        if (appended) {
+            if (count == capacity) {
+                map(capacity * 2);
+                buffer.putInt(12, capacity);
+            }
+            record = count;
+        }
+
+        int base = recordBase(record);
+        int flags = 0;
+        if (data.manaUnlocked()) flags |= FLAG_MANA_UNLOCKED;
+        if (data.hasReceivedManaMessage()) flags |= FLAG_RECEIVED_MESSAGE;
+        if (data.manaRunUnlocked()) flags |= FLAG_RUN_UNLOCKED;
+        if (data.manaClimbUnlocked()) flags |= FLAG_CLIMB_UNLOCKED;
+        if (data.manaDashUnlocked()) flags |= FLAG_DASH_UNLOCKED;
+
+        buffer.putLong(base + OFFSET_MSB, data.playerId().getMostSignificantBits());
+        buffer.putLong(base + OFFSET_LSB, data.playerId().getLeastSignificantBits());
+        buffer.putInt(base + OFFSET_CHARGES, data.fullChargeCount());
+        buffer.put(base + OFFSET_FLAGS, (byte) flags);
+        buffer.putInt(base + OFFSET_CLIMB_USES, data.climbUseCount());
+        buffer.putInt(base + OFFSET_CLIMB_LEVEL, data.climbLevel());
+
+        if (appended) {
+            // Bump the count only after the record is complete
+            count++;
+            buffer.putInt(8, count);
+            index.put(data.playerId(), record);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close player record file: " + e.getMessage());
+        }
+    }
+}
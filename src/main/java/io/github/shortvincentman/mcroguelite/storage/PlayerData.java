@@ -0,0 +1,21 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a player's persisted mana progression.
+ * Taken on the main thread and handed to storage, so background writers
+ * never touch live player state.
+ */
+public record PlayerData(
+        UUID playerId,
+        boolean manaUnlocked,
+        boolean hasReceivedManaMessage,
+        int fullChargeCount,
+        boolean manaRunUnlocked,
+        boolean manaClimbUnlocked,
+        boolean manaDashUnlocked,
+        int climbLevel,
+        int climbUseCount
+) {
+}
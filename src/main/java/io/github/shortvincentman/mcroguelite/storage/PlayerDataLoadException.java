@@ -0,0 +1,13 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+/**
+ * A player's saved data exists but couldn't be read right now (locked
+ * database, I/O error). Distinct from "no saved data" so callers never mistake
+ * a failed read for a new player and save defaults over the real data.
+ */
+public class PlayerDataLoadException extends RuntimeException {
+
+    public PlayerDataLoadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
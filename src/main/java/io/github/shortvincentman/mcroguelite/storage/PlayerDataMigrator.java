@@ -0,0 +1,285 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Bulk conversion of the playerdata/<uuid>.yml directory into another store.
+ * Files are parsed and validated in parallel on a fork-join pool; parsed
+ * records stream through a bounded queue to a single consumer that writes
+ * them to the target in large batches (one transaction / one force() each).
+ * The source directory is only read, never modified.
+ *
+ * Runs from /mcroguelite migrate, or standalone with the server jar on the classpath:
+ *   java -cp paper.jar:mcroguelite.jar io.github.shortvincentman.mcroguelite.storage.PlayerDataMigrator \
+ *       plugins/mcroguelite/playerdata sqlite plugins/mcroguelite/playerdata.db
+ */
+public class PlayerDataMigrator {
+
+    private static final int BATCH_SIZE = 1000;
+    // Files per leaf task - below this a task parses instead of splitting
+    private static final int SPLIT_THRESHOLD = 256;
+    // Only the first few bad files are logged individually
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    public record Result(int total, int migrated, int skipped, long elapsedMs) {
+    }
+
+    private final Logger logger;
+    private final int parallelism;
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    public PlayerDataMigrator(Logger logger, int parallelism) {
+        this.logger = logger;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Copy every valid YAML player file in [sourceFolder] into [target].
+     * Blocks until done; run it off the main thread.
+     */
+    public Result migrate(File sourceFolder, PlayerDataStore target) throws IOException {
+        long start = System.nanoTime();
+        List<Path> files = listPlayerFiles(sourceFolder.toPath());
+        int total = files.size();
+        logger.info("Migrating " + total + " player files with " + parallelism + " threads...");
+
+        BlockingQueue<PlayerData> queue = new ArrayBlockingQueue<>(BATCH_SIZE * 4);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        int migrated = 0;
+        try {
+            ForkJoinTask<Void> producer = pool.submit(new ParseTask(files, 0, total, queue));
+
+            List<PlayerData> batch = new ArrayList<>(BATCH_SIZE);
+            int nextReport = Math.max(1, total / 10);
+            while (true) {
+                PlayerData data = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (data != null) {
+                    batch.add(data);
+                    if (batch.size() >= BATCH_SIZE) {
+                        writeBatch(target, batch, migrated);
+                        migrated += batch.size();
+                        batch.clear();
+                    }
+                } else if (producer.isDone() && queue.isEmpty()) {
+                    break;
+                }
+
+                // Progress roughly every 10%
+                int done = parsed.get() + skipped.get();
+                if (done >= nextReport) {
+                    logger.info("  " + done + "/" + total + " files read (" + migrated + " written, " + skipped.get() + " skipped)");
+                    nextReport = done + Math.max(1, total / 10);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(target, batch, migrated);
+                migrated += batch.size();
+            }
+            // Surface anything a worker threw
+            producer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Migration interrupted after " + migrated + " players.");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        Result result = new Result(total, migrated, skipped.get(), elapsedMs);
+        logger.info("Migration finished: " + migrated + "/" + total + " players written, "
+                + result.skipped() + " skipped, " + elapsedMs + " ms.");
+        return result;
+    }
+
+    /** Only batches the target confirms are counted; a failed one ends the migration. */
+    private void writeBatch(PlayerDataStore target, List<PlayerData> batch, int migrated) throws IOException {
+        try {
+            target.writeAll(batch);
+        } catch (IOException e) {
+            logger.severe("Migration aborted after " + migrated + " players: " + e.getMessage());
+            throw new IOException("writing to the target failed after " + migrated + " players (" + e.getMessage() + ")", e);
+        }
+    }
+
+    private static List<Path> listPlayerFiles(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            throw new IOException(folder + " is not a directory");
+        }
+        try (Stream<Path> stream = Files.list(folder)) {
+            return stream.filter(path -> path.getFileName().toString().endsWith(".yml")).toList();
+        }
+    }
+
+    /** Splits the file list in halves until small enough, then parses its range. */
+    private class ParseTask extends RecursiveAction {
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+        private final BlockingQueue<PlayerData> queue;
+
+        ParseTask(List<Path> files, int from, int to, BlockingQueue<PlayerData> queue) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.queue = queue;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(files, from, mid, queue), new ParseTask(files, mid, to, queue));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Path file = files.get(i);
+                try {
+                    PlayerData data = parse(file);
+                    // Blocks when the writer falls behind, keeping memory bounded
+                    queue.put(data);
+                    parsed.incrementAndGet();
+                } catch (InvalidPlayerFileException e) {
+                    reportSkip(file, e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void reportSkip(Path file, String reason) {
+        int count = skipped.incrementAndGet();
+        if (count <= MAX_REPORTED_ERRORS) {
+            logger.warning("Skipping " + file.getFileName() + ": " + reason);
+        } else if (count == MAX_REPORTED_ERRORS + 1) {
+            logger.warning("Further invalid files will only be counted.");
+        }
+    }
+
+    // -------- Parsing & Validation --------
+
+    private static class InvalidPlayerFileException extends Exception {
+        InvalidPlayerFileException(String message) {
+            super(message);
+        }
+    }
+
+    private static PlayerData parse(Path file) throws InvalidPlayerFileException {
+        String name = file.getFileName().toString();
+        UUID playerId;
+        try {
+            playerId = UUID.fromString(name.substring(0, name.length() - ".yml".length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPlayerFileException("file name is not a player UUID");
+        }
+
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.load(file.toFile());
+        } catch (IOException | InvalidConfigurationException e) {
+            throw new InvalidPlayerFileException("unreadable YAML (" + e.getMessage() + ")");
+        }
+
+        int fullChargeCount = readInt(config, "fullChargeCount", 0);
+        int climbLevel = readInt(config, "climbLevel", 1);
+        int climbUseCount = readInt(config, "climbUseCount", 0);
+        if (fullChargeCount < 0) throw new InvalidPlayerFileException("negative fullChargeCount");
+        if (climbLevel < 1) throw new InvalidPlayerFileException("climbLevel below 1");
+        if (climbUseCount < 0) throw new InvalidPlayerFileException("negative climbUseCount");
+
+        return new PlayerData(
+                playerId,
+                readBoolean(config, "manaUnlocked"),
+                readBoolean(config, "hasReceivedManaMessage"),
+                fullChargeCount,
+                readBoolean(config, "manaRunUnlocked"),
+                readBoolean(config, "manaClimbUnlocked"),
+                readBoolean(config, "manaDashUnlocked"),
+                climbLevel,
+                climbUseCount
+        );
+    }
+
+    private static boolean readBoolean(YamlConfiguration config, String key) throws InvalidPlayerFileException {
+        if (!config.contains(key)) return false;
+        if (!config.isBoolean(key)) throw new InvalidPlayerFileException(key + " is not true/false");
+        return config.getBoolean(key);
+    }
+
+    private static int readInt(YamlConfiguration config, String key, int def) throws InvalidPlayerFileException {
+        if (!config.contains(key)) return def;
+        if (!config.isInt(key)) throw new InvalidPlayerFileException(key + " is not a whole number");
+        return config.getInt(key);
+    }
+
+    // -------- Targets --------
+
+    /**
+     * Open a store of [type] at [file] for migration. Unlike the plugin's own
+     * startup there is no YAML fallback - a target that can't be opened is an error.
+     */
+    public static PlayerDataStore openTarget(String type, File file, Logger logger) throws IOException {
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case "sqlite":
+                try {
+                    return new SqlitePlayerDataStore(file, logger);
+                } catch (SQLException e) {
+                    throw new IOException("could not open " + file + ": " + e.getMessage(), e);
+                }
+            case "mapped":
+                return new MappedPlayerDataStore(file, logger);
+            default:
+                throw new IOException("unknown target type '" + type + "' (use sqlite or mapped)");
+        }
+    }
+
+    /**
+     * Standalone entry point:
+     *   PlayerDataMigrator <playerdata-dir> <sqlite|mapped> <target-file> [threads]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: PlayerDataMigrator <playerdata-dir> <sqlite|mapped> <target-file> [threads]");
+            System.exit(2);
+        }
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Logger logger = Logger.getLogger("mcroguelite-migrate");
+
+        PlayerDataStore target = openTarget(args[1], new File(args[2]), logger);
+        Result result = null;
+        try {
+            result = new PlayerDataMigrator(logger, threads).migrate(new File(args[0]), target);
+        } catch (IOException e) {
+            System.err.println("Migration failed: " + e.getMessage());
+        } finally {
+            target.close();
+        }
+        // Non-zero exit so scripts notice a failed write or files that were left behind
+        if (result == null || result.skipped() > 0 || result.migrated() + result.skipped() < result.total()) {
+            System.exit(1);
+        }
+    }
+}
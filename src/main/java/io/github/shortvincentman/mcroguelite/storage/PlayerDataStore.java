@@ -0,0 +1,38 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Backend that persists player mana data.
+ * Loads are called from async pre-login threads and saves from the
+ * write-behind thread, so implementations must be safe to call from
+ * more than one thread. Neither is ever called on the main thread
+ * except as a fallback.
+ */
+public interface PlayerDataStore {
+
+    /**
+     * The player's saved data, or null if they have none.
+     * @throws PlayerDataLoadException if the data couldn't be read
+     */
+    PlayerData load(UUID playerId);
+
+    /** Persist a batch of snapshots. Failures are logged, not thrown. */
+    void saveAll(Collection<PlayerData> batch);
+
+    /**
+     * Persist a batch, throwing if it couldn't be written. For bulk copies
+     * (migration) that must not count a failed batch as saved.
+     */
+    void writeAll(Collection<PlayerData> batch) throws IOException;
+
+    default void save(PlayerData data) {
+        saveAll(List.of(data));
+    }
+
+    /** Release files/connections. No calls are made after this. */
+    void close();
+}
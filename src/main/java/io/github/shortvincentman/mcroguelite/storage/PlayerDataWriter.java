@@ -0,0 +1,151 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind persistence for player mana data.
+ * The main thread only hands over immutable snapshots; a single background
+ * thread writes them out. Repeated saves for the same player before the
+ * writer gets to them are coalesced into one write of the newest snapshot,
+ * and everything queued by the time a pass starts goes to the store as one batch.
+ */
+public class PlayerDataWriter {
+
+    private final PlayerDataStore store;
+    private final Logger logger;
+
+    // Newest unwritten snapshot per player
+    private final Map<UUID, PlayerData> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final ExecutorService executor;
+
+    public PlayerDataWriter(PlayerDataStore store, Logger logger) {
+        this.store = store;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcroguelite-playerdata-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Queue a snapshot for writing. Never blocks on I/O. */
+    public void enqueue(PlayerData data) {
+        pending.put(data.playerId(), data);
+        scheduleDrain();
+    }
+
+    /** Queue several snapshots so they go out together in one pass. */
+    public void enqueueAll(Collection<PlayerData> batch) {
+        if (batch.isEmpty()) return;
+        for (PlayerData data : batch) {
+            pending.put(data.playerId(), data);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * The newest snapshot still waiting to be written, or null.
+     * Loaders check this first so a quick rejoin never reads a stale file.
+     */
+    public PlayerData getPending(UUID playerId) {
+        return pending.get(playerId);
+    }
+
+    /**
+     * Load a player's data: the queued snapshot if there is one, otherwise the store.
+     * Safe to call off the main thread.
+     */
+    public PlayerData load(UUID playerId) {
+        PlayerData queued = pending.get(playerId);
+        if (queued != null) return queued;
+        return store.load(playerId);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down - the final flush picks up whatever is left
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        // Clear first so anything enqueued while we write schedules another pass
+        drainScheduled.set(false);
+
+        List<PlayerData> batch = new ArrayList<>(pending.values());
+        if (batch.isEmpty()) return;
+
+        store.saveAll(batch);
+        for (PlayerData data : batch) {
+            // Only drop it if no newer snapshot arrived while we were writing
+            pending.remove(data.playerId(), data);
+        }
+    }
+
+    /**
+     * Write everything queued so far and wait for it, at most [timeoutMs].
+     * The writer keeps running afterwards. Don't call on the main thread.
+     * @return true if everything queued before the call is in the store
+     */
+    public boolean flush(long timeoutMs) {
+        // Single writer thread: once this pass finishes, every earlier one has too
+        Future<?> pass;
+        try {
+            pass = executor.submit(this::drain);
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        try {
+            pass.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Flush everything still queued, stop the writer thread and close the store.
+     * Waits at most [timeoutMs]; anything not written by then is reported.
+     */
+    public void shutdown(long timeoutMs) {
+        scheduleDrain();
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                store.close();
+            } else {
+                // Leave the store open - the writer thread may still be using it
+                logger.warning("Player data flush timed out with " + pending.size() + " saves still pending.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Interrupted while flushing player data (" + pending.size() + " saves pending).");
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * All player mana data in a single SQLite file (the driver ships with the server).
+ * Saves are batched upserts inside one transaction, so a write-behind pass
+ * costs one commit no matter how many players it covers. Writes share one
+ * connection and are synchronized on the store; loads use a separate
+ * read-only connection with its own lock, so with WAL a pre-login read never
+ * waits for a batch commit.
+ */
+public class SqlitePlayerDataStore implements PlayerDataStore {
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS player_data ("
+                    + "uuid TEXT PRIMARY KEY, "
+                    + "mana_unlocked INTEGER NOT NULL, "
+                    + "received_mana_message INTEGER NOT NULL, "
+                    + "full_charge_count INTEGER NOT NULL, "
+                    + "mana_run_unlocked INTEGER NOT NULL, "
+                    + "mana_climb_unlocked INTEGER NOT NULL, "
+                    + "mana_dash_unlocked INTEGER NOT NULL, "
+                    + "climb_level INTEGER NOT NULL DEFAULT 1, "
+                    + "climb_use_count INTEGER NOT NULL DEFAULT 0)";
+
+    private static final String SELECT =
+            "SELECT mana_unlocked, received_mana_message, full_charge_count, "
+                    + "mana_run_unlocked, mana_climb_unlocked, mana_dash_unlocked, climb_level, climb_use_count "
+                    + "FROM player_data WHERE uuid = ?";
+
+    private static final String UPSERT =
+            "INSERT INTO player_data (uuid, mana_unlocked, received_mana_message, full_charge_count, "
+                    + "mana_run_unlocked, mana_climb_unlocked, mana_dash_unlocked, climb_level, climb_use_count) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT(uuid) DO UPDATE SET "
+                    + "mana_unlocked = excluded.mana_unlocked, "
+                    + "received_mana_message = excluded.received_mana_message, "
+                    + "full_charge_count = excluded.full_charge_count, "
+                    + "mana_run_unlocked = excluded.mana_run_unlocked, "
+                    + "mana_climb_unlocked = excluded.mana_climb_unlocked, "
+                    + "mana_dash_unlocked = excluded.mana_dash_unlocked, "
+                    + "climb_level = excluded.climb_level, "
+                    + "climb_use_count = excluded.climb_use_count";
+
+    // A locked database is retried for this long before a call fails
+    private static final int BUSY_TIMEOUT_MS = 2000;
+
+    private final Logger logger;
+    private final Connection connection;
+    private final PreparedStatement upsert;
+    // Loads only; guarded by readLock
+    private final Connection readConnection;
+    private final PreparedStatement select;
+    private final Object readLock = new Object();
+
+    /**
+     * Open (or create) the database file.
+     * @throws SQLException if the driver is missing or the file can't be opened
+     */
+    public SqlitePlayerDataStore(File file, Logger logger) throws SQLException {
+        this.logger = logger;
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        String url = "jdbc:sqlite:" + file.getAbsolutePath();
+        this.connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            // WAL lets the read connection proceed while this one commits
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+            statement.execute(CREATE_TABLE);
+            // Databases created before the climb columns existed
+            addColumnIfMissing(statement, "climb_level", "INTEGER NOT NULL DEFAULT 1");
+            addColumnIfMissing(statement, "climb_use_count", "INTEGER NOT NULL DEFAULT 0");
+        }
+        this.upsert = connection.prepareStatement(UPSERT);
+
+        this.readConnection = DriverManager.getConnection(url);
+        try (Statement statement = readConnection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+        }
+        readConnection.setReadOnly(true);
+        this.select = readConnection.prepareStatement(SELECT);
+    }
+
+    private static void addColumnIfMissing(Statement statement, String column, String definition) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("PRAGMA table_info(player_data)")) {
+            while (rs.next()) {
+                if (column.equals(rs.getString("name"))) return;
+            }
+        }
+        statement.execute("ALTER TABLE player_data ADD COLUMN " + column + " " + definition);
+    }
+
+    @Override
+    public PlayerData load(UUID playerId) {
+        synchronized (readLock) {
+            try {
+                select.setString(1, playerId.toString());
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) return null;
+                    return new PlayerData(
+                            playerId,
+                            rs.getBoolean(1),
+                            rs.getBoolean(2),
+                            rs.getInt(3),
+                            rs.getBoolean(4),
+                            rs.getBoolean(5),
+                            rs.getBoolean(6),
+                            rs.getInt(7),
+                            rs.getInt(8)
+                    );
+                }
+            } catch (SQLException e) {
+                // Not the same as "no data" - a default profile saved over the row would wipe it
+                throw new PlayerDataLoadException("Failed to load player data for " + playerId, e);
+            }
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<PlayerData> batch) {
+        try {
+            writeAll(batch);
+        } catch (IOException e) {
+            logger.warning(e.getMessage());
+        }
+    }
+
+    /** Writes the batch in one transaction; on failure it is rolled back and nothing is kept. */
+    @Override
+    public synchronized void writeAll(Collection<PlayerData> batch) throws IOException {
+        if (batch.isEmpty()) return;
+        try {
+            connection.setAutoCommit(false);
+            for (PlayerData data : batch) {
+                upsert.setString(1, data.playerId().toString());
+                upsert.setBoolean(2, data.manaUnlocked());
+                upsert.setBoolean(3, data.hasReceivedManaMessage());
+                upsert.setInt(4, data.fullChargeCount());
+                upsert.setBoolean(5, data.manaRunUnlocked());
+                upsert.setBoolean(6, data.manaClimbUnlocked());
+                upsert.setBoolean(7, data.manaDashUnlocked());
+                upsert.setInt(8, data.climbLevel());
+                upsert.setInt(9, data.climbUseCount());
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // Connection is already broken - nothing more to undo
+            }
+            throw new IOException("Failed to save player data (" + batch.size() + " players): " + e.getMessage(), e);
+        } finally {
+            try {
+                upsert.clearBatch();
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        synchronized (readLock) {
+            try {
+                select.close();
+                readConnection.close();
+            } catch (SQLException e) {
+                logger.warning("Failed to close player database reader: " + e.getMessage());
+            }
+        }
+        try {
+            upsert.close();
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Failed to close player database: " + e.getMessage());
+        }
+    }
+}
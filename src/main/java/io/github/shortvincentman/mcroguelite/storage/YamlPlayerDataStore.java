@@ -0,0 +1,108 @@
+package io.github.shortvincentman.mcroguelite.storage;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * One playerdata/<uuid>.yml per player - the original storage format.
+ * Files are written to a temp file and renamed over the old one, so a crash
+ * mid-write never leaves a truncated player file.
+ */
+public class YamlPlayerDataStore implements PlayerDataStore {
+
+    private final File folder;
+    private final Logger logger;
+
+    public YamlPlayerDataStore(File folder, Logger logger) {
+        this.folder = folder;
+        this.logger = logger;
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+    }
+
+    private File getPlayerFile(UUID playerId) {
+        return new File(folder, playerId.toString() + ".yml");
+    }
+
+    @Override
+    public PlayerData load(UUID playerId) {
+        File file = getPlayerFile(playerId);
+        if (!file.exists()) return null;
+
+        YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.load(file);
+        } catch (IOException | InvalidConfigurationException e) {
+            // Not the same as "no data" - a default profile saved over the file would wipe it
+            throw new PlayerDataLoadException("Failed to load player data for " + playerId, e);
+        }
+        return new PlayerData(
+                playerId,
+                config.getBoolean("manaUnlocked", false),
+                config.getBoolean("hasReceivedManaMessage", false),
+                config.getInt("fullChargeCount", 0),
+                config.getBoolean("manaRunUnlocked", false),
+                config.getBoolean("manaClimbUnlocked", false),
+                config.getBoolean("manaDashUnlocked", false),
+                config.getInt("climbLevel", 1),
+                config.getInt("climbUseCount", 0)
+        );
+    }
+
+    @Override
+    public void saveAll(Collection<PlayerData> batch) {
+        for (PlayerData data : batch) {
+            try {
+                write(data);
+            } catch (IOException e) {
+                logger.warning("Failed to save player data for " + data.playerId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Stops at the first file that can't be written; files before it are kept. */
+    @Override
+    public void writeAll(Collection<PlayerData> batch) throws IOException {
+        for (PlayerData data : batch) {
+            write(data);
+        }
+    }
+
+    private void write(PlayerData data) throws IOException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("manaUnlocked", data.manaUnlocked());
+        config.set("hasReceivedManaMessage", data.hasReceivedManaMessage());
+        config.set("fullChargeCount", data.fullChargeCount());
+        config.set("manaRunUnlocked", data.manaRunUnlocked());
+        config.set("manaClimbUnlocked", data.manaClimbUnlocked());
+        config.set("manaDashUnlocked", data.manaDashUnlocked());
+        config.set("climbLevel", data.climbLevel());
+        config.set("climbUseCount", data.climbUseCount());
+
+        Path target = getPlayerFile(data.playerId()).toPath();
+        Path temp = new File(folder, data.playerId() + ".yml.tmp").toPath();
+        Files.writeString(temp, config.saveToString(), StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void close() {
+        // Nothing held open between writes
+    }
+}
@@ -3,6 +3,8 @@ package io.github.shortvincentman.mcroguelite.tome;
 import io.github.shortvincentman.mcroguelite.ChargeBarManager;
 import io.github.shortvincentman.mcroguelite.Mcroguelite;
 import io.github.shortvincentman.mcroguelite.Spells;
+import io.github.shortvincentman.mcroguelite.scheduler.TaskScheduler;
+import io.github.shortvincentman.mcroguelite.util.BossBarView;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
@@ -23,21 +25,21 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TomeSpellListener implements Listener {
     private final Mcroguelite plugin;
     private final SpellTome spellTome;
     private final ChargeBarManager chargeBarManager;
 
-    private final Map<UUID, CastingState> castingPlayers = new HashMap<>();
-    private final Map<UUID, BossBar> castBars = new HashMap<>();
+    private final Map<UUID, CastingState> castingPlayers = new ConcurrentHashMap<>();
+    private final Map<UUID, BossBarView> castBars = new ConcurrentHashMap<>();
 
     // Cast time in ticks for each spell
     private static final Map<String, Integer> CAST_TIMES = new HashMap<>() {{
@@ -107,7 +109,7 @@ public class TomeSpellListener implements Listener {
     private static class CastingState {
         String spell;
         int totalTicks;
-        BukkitRunnable task;
+        TaskScheduler.Task task;
         ItemStack tome;
         double manaAtCastStart; // The mana % when casting started - this is used for timing
 
@@ -220,12 +222,14 @@ public class TomeSpellListener implements Listener {
         );
         castBar.setProgress(0);
         castBar.addPlayer(player);
-        castBars.put(uuid, castBar);
+        BossBarView castBarView = new BossBarView(castBar, plugin.getSettings().castBarThreshold());
+        castBars.put(uuid, castBarView);
 
         // Start casting sound
         player.playSound(player.getLocation(), Sound.BLOCK_ENCHANTMENT_TABLE_USE, 0.5f, 0.5f);
 
-        state.task = new BukkitRunnable() {
+        // Follows the caster between regions on Folia
+        state.task = plugin.getTaskScheduler().runTimerFor(player, new Runnable() {
             int tick = 0;
 
             @Override
@@ -237,7 +241,7 @@ public class TomeSpellListener implements Listener {
 
                 tick++;
                 double progress = (double) tick / castTime;
-                castBar.setProgress(Math.min(1.0, progress));
+                castBarView.setProgress(Math.min(1.0, progress));
 
                 // Charging sound every few ticks
                 if (tick % 5 == 0) {
@@ -246,14 +250,11 @@ public class TomeSpellListener implements Listener {
                 }
 
                 if (tick >= castTime) {
-                    // Cast completes - use mana % from when casting started
+                    // Cast completes - use mana % from when casting started (also stops this task)
                     finishCasting(player);
-                    cancel();
                 }
             }
-        };
-
-        state.task.runTaskTimer(plugin, 0L, 1L);
+        }, 0L, 1L);
         castingPlayers.put(uuid, state);
     }
 
@@ -266,7 +267,7 @@ public class TomeSpellListener implements Listener {
             state.task.cancel();
         }
 
-        BossBar bar = castBars.remove(uuid);
+        BossBarView bar = castBars.remove(uuid);
         if (bar != null) bar.removeAll();
 
         String spell = state.spell;
@@ -329,7 +330,7 @@ public class TomeSpellListener implements Listener {
             state.task.cancel();
         }
 
-        BossBar bar = castBars.remove(uuid);
+        BossBarView bar = castBars.remove(uuid);
         if (bar != null) bar.removeAll();
     }
 
@@ -440,21 +441,21 @@ public class TomeSpellListener implements Listener {
             case "HOPPA":
                 return Spells.castHoppa(player, manaPercent, window[0], window[1]);
             case "WARD":
-                return Spells.castWard(player, manaPercent, window[0], window[1]);
+                return Spells.castWard(player, manaPercent, window[0], window[1], plugin);
             case "UNLOCK":
                 return Spells.castUnlock(player, manaPercent, window[0], window[1], chargeBarManager);
             case "SNAP":
-                return Spells.castSnap(player, manaPercent, window[0], window[1]);
+                return Spells.castSnap(player, manaPercent, window[0], window[1], plugin);
             case "FIMBULVETR":
                 return Spells.castFimbulvetr(player, manaPercent, window[0], window[1], chargeBarManager, plugin);
             case "PERFLORA":
                 return Spells.castPerflora(player, manaPercent, window[0], window[1], plugin);
             case "SNARVINDUR":
-                return Spells.castSnarvindur(player, manaPercent, window[0], window[1]);
+                return Spells.castSnarvindur(player, manaPercent, window[0], window[1], plugin);
             case "TENEBRIS":
                 return Spells.castTenebris(player, manaPercent, window[0], window[1], chargeBarManager, plugin);
             case "PERCUTIENS":
-                return Spells.castPercutiens(player, manaPercent, window[0], window[1]);
+                return Spells.castPercutiens(player, manaPercent, window[0], window[1], plugin);
             case "CELERITAS":
                 return Spells.castCeleritas(player, manaPercent, window[0], window[1]);
             case "VEIL":
@@ -488,7 +489,7 @@ public class TomeSpellListener implements Listener {
     }
 
     public void cleanup() {
-        for (BossBar bar : castBars.values()) {
+        for (BossBarView bar : castBars.values()) {
             bar.removeAll();
         }
         castBars.clear();
@@ -0,0 +1,75 @@
+package io.github.shortvincentman.mcroguelite.util;
+
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BossBar;
+
+/**
+ * Delta-coalescing wrapper around a BossBar.
+ * Remembers what was last sent to the client and only forwards a change when
+ * the progress moved by at least [threshold], or the title/color/visibility
+ * actually differs. Every forwarded call is a packet to each viewer, so idle
+ * or sub-threshold updates are dropped here.
+ */
+public class BossBarView {
+
+    private final BossBar bar;
+    private double threshold;
+
+    // Last values pushed to the client
+    private double sentProgress;
+    private String sentTitle;
+    private BarColor sentColor;
+    private boolean sentVisible;
+
+    public BossBarView(BossBar bar, double threshold) {
+        this.bar = bar;
+        this.threshold = Math.max(0.0, threshold);
+        this.sentProgress = bar.getProgress();
+        this.sentTitle = bar.getTitle();
+        this.sentColor = bar.getColor();
+        this.sentVisible = bar.isVisible();
+    }
+
+    public void setProgress(double progress) {
+        if (progress < 0.0) progress = 0.0;
+        if (progress > 1.0) progress = 1.0;
+        if (progress == sentProgress) return;
+
+        // Always land exactly on empty/full so the bar never sits one step short
+        boolean edge = progress <= 0.0 || progress >= 1.0;
+        if (!edge && Math.abs(progress - sentProgress) < threshold) return;
+
+        bar.setProgress(progress);
+        sentProgress = progress;
+    }
+
+    public void setTitle(String title) {
+        if (title.equals(sentTitle)) return;
+        bar.setTitle(title);
+        sentTitle = title;
+    }
+
+    public void setColor(BarColor color) {
+        if (color == sentColor) return;
+        bar.setColor(color);
+        sentColor = color;
+    }
+
+    public void setVisible(boolean visible) {
+        if (visible == sentVisible) return;
+        bar.setVisible(visible);
+        sentVisible = visible;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = Math.max(0.0, threshold);
+    }
+
+    public void removeAll() {
+        bar.removeAll();
+    }
+
+    public BossBar getBar() {
+        return bar;
+    }
+}